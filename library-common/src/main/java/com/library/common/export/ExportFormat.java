@@ -0,0 +1,14 @@
+package com.library.common.export;
+
+public enum ExportFormat {
+    CSV, NDJSON;
+
+    public static ExportFormat parse(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value.trim())) {
+                return format;
+            }
+        }
+        throw new InvalidExportRequestException("Invalid format: " + value + " (expected csv or ndjson)");
+    }
+}
\ No newline at end of file
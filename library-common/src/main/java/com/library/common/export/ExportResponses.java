@@ -0,0 +1,102 @@
+package com.library.common.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+// Downloadable exports: rows are encoded and compressed as the producer hands them over, nothing is buffered
+// beyond the writer and gzip buffers
+public final class ExportResponses {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType APPLICATION_GZIP = new MediaType("application", "gzip");
+
+    private ExportResponses() {
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> export(ObjectMapper objectMapper, ExportFormat format,
+                                                                   boolean gzip, String filename,
+                                                                   List<String> csvHeader,
+                                                                   Function<T, List<Object>> csvValues,
+                                                                   Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, csvHeader);
+                producer.accept(row -> write(() -> writeCsvLine(writer, csvValues.apply(row))));
+            } else {
+                producer.accept(row -> write(() -> {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }));
+            }
+            // Write the gzip trailer but leave the servlet stream to the container
+            writer.flush();
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+
+        String extension = format == ExportFormat.CSV ? ".csv" : ".ndjson";
+        MediaType contentType = format == ExportFormat.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .contentType(gzip ? APPLICATION_GZIP : contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename + extension + (gzip ? ".gz" : ""))
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    // RFC 4180: fields holding a comma, quote or line break are quoted, quotes inside are doubled
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                    || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void write(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
\ No newline at end of file
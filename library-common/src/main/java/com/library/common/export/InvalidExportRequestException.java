@@ -0,0 +1,8 @@
+package com.library.common.export;
+
+// An export format the client asked for that cannot be produced; every application maps it to 400
+public class InvalidExportRequestException extends RuntimeException {
+    public InvalidExportRequestException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.library.common.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+// One flat line of the loan export; the same fields in the same order for CSV and NDJSON, from the monolith
+// and from Loan Service
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanExportRow {
+    public static final List<String> CSV_HEADER = List.of("id", "loanDate", "dueDate", "returnDate", "status",
+            "bookId", "bookTitle", "bookIsbn", "bookAuthor", "memberId", "memberFirstName", "memberLastName",
+            "memberEmail");
+
+    private Long id;
+    private LocalDate loanDate;
+    private LocalDate dueDate;
+    private LocalDate returnDate;
+    private String status;
+    private Long bookId;
+    private String bookTitle;
+    private String bookIsbn;
+    private String bookAuthor;
+    private Long memberId;
+    private String memberFirstName;
+    private String memberLastName;
+    private String memberEmail;
+
+    public List<Object> csvValues() {
+        return Arrays.asList(id, loanDate, dueDate, returnDate, status, bookId, bookTitle, bookIsbn, bookAuthor,
+                memberId, memberFirstName, memberLastName, memberEmail);
+    }
+}
\ No newline at end of file
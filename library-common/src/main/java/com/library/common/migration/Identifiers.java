@@ -0,0 +1,19 @@
+package com.library.common.migration;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Locale;
+
+final class Identifiers {
+
+    private Identifiers() {
+    }
+
+    // Metadata lookups match names exactly, in the case the database stores unquoted identifiers in
+    static String of(DatabaseMetaData metaData, String name) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        return metaData.storesLowerCaseIdentifiers() ? name.toLowerCase(Locale.ROOT) : name;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.library.common.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Base for migrations that add indexes Hibernate may already have created under ddl-auto=update, before the schema
+// was versioned. MySQL has no "create index if not exists", so the index is looked up first and adopted if present.
+public abstract class IndexMigration extends BaseJavaMigration {
+
+    protected void createIndexIfMissing(Context context, String table, String index, String columns)
+            throws SQLException {
+        Connection connection = context.getConnection();
+        if (indexExists(connection, table, index)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create index " + index + " on " + table + " (" + columns + ")");
+        }
+    }
+
+    private static boolean indexExists(Connection connection, String table, String index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                Identifiers.of(metaData, table), false, false)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
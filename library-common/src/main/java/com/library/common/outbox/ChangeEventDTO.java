@@ -0,0 +1,21 @@
+package com.library.common.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Change event published by Book Service or Member Service from their outbox
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDTO {
+    private Long id;
+    private String aggregateType;
+    private Long aggregateId;
+    private String eventType;
+    private Integer copiesDelta;
+    private JsonNode payload;
+    private LocalDateTime createdAt;
+}
\ No newline at end of file
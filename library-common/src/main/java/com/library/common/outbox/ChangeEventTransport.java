@@ -0,0 +1,10 @@
+package com.library.common.outbox;
+
+import java.util.List;
+
+// How OutboxRelay hands batches to subscribers. Selected with library.outbox.transport (http or in-memory).
+public interface ChangeEventTransport {
+
+    // Returns once every subscriber accepted the batch, in order; throws otherwise and the batch is sent again
+    void publish(List<ChangeEventDTO> events);
+}
\ No newline at end of file
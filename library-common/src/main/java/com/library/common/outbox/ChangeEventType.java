@@ -0,0 +1,7 @@
+package com.library.common.outbox;
+
+public enum ChangeEventType {
+    CREATED, UPDATED, DELETED,
+    // Book availableCopies moved by copiesDelta
+    INVENTORY_CHANGED
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.library.common.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// POSTs each batch to every instance of every subscribing service, since each instance keeps its own caches
+@ConditionalOnProperty(name = "library.outbox.transport", havingValue = "http", matchIfMissing = true)
+public class HttpChangeEventTransport implements ChangeEventTransport {
+
+    private final DiscoveryClient discoveryClient;
+    private final RestClient restClient;
+    private final Map<String, String> subscribers;
+
+    public HttpChangeEventTransport(DiscoveryClient discoveryClient,
+                                    RestClient.Builder restClientBuilder,
+                                    @Value("#{${library.outbox.subscribers:{'loan-service': '/api/loans/events'}}}")
+                                    Map<String, String> subscribers,
+                                    @Value("${library.outbox.timeout:2s}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.discoveryClient = discoveryClient;
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.subscribers = subscribers;
+    }
+
+    @Override
+    public void publish(List<ChangeEventDTO> events) {
+        subscribers.forEach((serviceId, path) -> {
+            List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+            if (instances.isEmpty()) {
+                // Keep the events until a subscriber is back rather than dropping them
+                throw new IllegalStateException("No instance of " + serviceId + " is available");
+            }
+            for (ServiceInstance instance : instances) {
+                restClient.post()
+                        .uri(instance.getUri() + path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(events)
+                        .retrieve()
+                        .toBodilessEntity();
+            }
+        });
+    }
+}
\ No newline at end of file
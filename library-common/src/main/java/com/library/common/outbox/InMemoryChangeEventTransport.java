@@ -0,0 +1,39 @@
+package com.library.common.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// In-JVM stand-in for tests and local runs: hands batches to in-process listeners and keeps what was published
+@ConditionalOnProperty(name = "library.outbox.transport", havingValue = "in-memory")
+public class InMemoryChangeEventTransport implements ChangeEventTransport {
+
+    private final List<Consumer<List<ChangeEventDTO>>> listeners = new CopyOnWriteArrayList<>();
+    private final List<ChangeEventDTO> published = new ArrayList<>();
+
+    public void subscribe(Consumer<List<ChangeEventDTO>> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void publish(List<ChangeEventDTO> events) {
+        listeners.forEach(listener -> listener.accept(events));
+        synchronized (published) {
+            published.addAll(events);
+        }
+    }
+
+    public List<ChangeEventDTO> published() {
+        synchronized (published) {
+            return List.copyOf(published);
+        }
+    }
+
+    public void clear() {
+        synchronized (published) {
+            published.clear();
+        }
+    }
+}
\ No newline at end of file
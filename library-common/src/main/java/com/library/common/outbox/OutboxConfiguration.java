@@ -0,0 +1,11 @@
+package com.library.common.outbox;
+
+import org.springframework.context.annotation.Import;
+
+// Imported by the services that publish change events. They own an outbox_events table and set
+// library.outbox.aggregate-type, which names their events and the relay's lock. None of these classes is a
+// @Component, so applications scanning com.library (the monolith) do not pick the outbox up.
+@Import({OutboxStore.class, OutboxWriter.class, OutboxRelay.class,
+        HttpChangeEventTransport.class, InMemoryChangeEventTransport.class})
+public class OutboxConfiguration {
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.library.common.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// A row of outbox_events: a change waiting to be published, written in the same transaction as the change itself.
+// The id orders events; publishedAt is set once every subscriber has acknowledged the event.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    private Long id;
+    private Long aggregateId;
+    private ChangeEventType eventType;
+    // Change in availableCopies for INVENTORY_CHANGED events
+    private Integer copiesDelta;
+    // JSON state of the aggregate after the change; null for DELETED
+    private String payload;
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+}
\ No newline at end of file
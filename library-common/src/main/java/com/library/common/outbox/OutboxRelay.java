@@ -0,0 +1,156 @@
+package com.library.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Publishes outbox events in id order, one batch at a time, and marks them published only after the transport
+// accepted them: delivery is at least once, so subscribers must tolerate seeing an event twice.
+// A failed batch stops the pass, so no event of an aggregate is ever delivered ahead of an earlier one.
+// Every replica schedules the relay; a MySQL named lock lets one of them publish at a time.
+// The backlog is published as library.outbox.* meters, read from the table so every replica reports it.
+@Slf4j
+public class OutboxRelay {
+
+    private final String aggregateType;
+    private final String lockName;
+    private final OutboxStore outboxStore;
+    private final ChangeEventTransport transport;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final Counter publishedEvents;
+    private final Counter failedBatches;
+
+    public OutboxRelay(OutboxStore outboxStore,
+                       ChangeEventTransport transport,
+                       DataSource dataSource,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${library.outbox.aggregate-type}") String aggregateType,
+                       @Value("${library.outbox.batch-size:100}") int batchSize,
+                       @Value("${library.outbox.retention:7d}") Duration retention) {
+        this.aggregateType = aggregateType;
+        this.lockName = aggregateType + "_outbox_relay";
+        this.outboxStore = outboxStore;
+        this.transport = transport;
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.publishedEvents = Counter.builder("library.outbox.published")
+                .description("Events every subscriber acknowledged")
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("library.outbox.failed.batches")
+                .description("Batches the transport could not deliver; they are sent again")
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+        Gauge.builder("library.outbox.pending", outboxStore, OutboxStore::countPending)
+                .description("Events not yet acknowledged by every subscriber")
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+        // Consumer lag: how long the oldest undelivered event has been waiting
+        TimeGauge.builder("library.outbox.oldest.pending.age", outboxStore, TimeUnit.MILLISECONDS,
+                        store -> store.findOldestPendingCreatedAt()
+                                .map(createdAt -> Duration.between(createdAt, LocalDateTime.now()).toMillis())
+                                .orElse(0L))
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${library.outbox.poll-interval:1s}")
+    public void relay() {
+        // The named lock belongs to this connection, which stays open for the whole pass
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!tryLock(lockConnection)) {
+                return;
+            }
+            try {
+                publishPending();
+            } finally {
+                unlock(lockConnection);
+            }
+        } catch (SQLException ex) {
+            log.warn("Outbox relay could not take its lock: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.outbox.purge-interval:1h}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> outboxStore.deletePublishedBefore(before));
+        log.debug("Purged {} published outbox events", deleted);
+    }
+
+    private void publishPending() {
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxStore.findPending(batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transport.publish(batch.stream().map(this::toDTO).toList());
+            } catch (RuntimeException ex) {
+                failedBatches.increment();
+                log.warn("Could not publish outbox events from {}, will retry: {}", batch.get(0).getId(),
+                        ex.getMessage());
+                return;
+            }
+            // A crash before this update sends the batch again on the next pass
+            List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+            LocalDateTime publishedAt = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> outboxStore.markPublished(ids, publishedAt));
+            publishedEvents.increment(ids.size());
+        } while (batch.size() == batchSize);
+    }
+
+    private ChangeEventDTO toDTO(OutboxEvent event) {
+        try {
+            return new ChangeEventDTO(event.getId(), aggregateType, event.getAggregateId(),
+                    event.getEventType().name(), event.getCopiesDelta(),
+                    event.getPayload() != null ? objectMapper.readTree(event.getPayload()) : null,
+                    event.getCreatedAt());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable payload in outbox event " + event.getId(), ex);
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select get_lock(?, 0)")) {
+            statement.setString(1, lockName);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select release_lock(?)")) {
+            statement.setString(1, lockName);
+            statement.execute();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.library.common.outbox;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Reads and writes outbox_events. The table has the same shape in every service that publishes change events.
+public class OutboxStore {
+
+    private static final String COLUMNS =
+            "id, aggregate_id, event_type, copies_delta, payload, created_at, published_at";
+    private static final String INSERT_EVENT = "insert into outbox_events (aggregate_id, event_type, copies_delta, " +
+            "payload, created_at) values (?, ?, ?, ?, ?)";
+
+    private static final RowMapper<OutboxEvent> EVENT = (rs, row) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getLong("aggregate_id"),
+            ChangeEventType.valueOf(rs.getString("event_type")),
+            rs.getObject("copies_delta", Integer.class),
+            rs.getString("payload"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("published_at", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long insert(Long aggregateId, ChangeEventType eventType, Integer copiesDelta, String payload,
+                       LocalDateTime createdAt) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement insert = connection.prepareStatement(INSERT_EVENT, Statement.RETURN_GENERATED_KEYS);
+            insert.setLong(1, aggregateId);
+            insert.setString(2, eventType.name());
+            insert.setObject(3, copiesDelta);
+            insert.setString(4, payload);
+            insert.setTimestamp(5, Timestamp.valueOf(createdAt));
+            return insert;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    // One JDBC batch, for bulk loads where inserting events one by one would dominate
+    public void insertAll(ChangeEventType eventType, Map<Long, String> payloads, LocalDateTime createdAt) {
+        List<Map.Entry<Long, String>> events = List.copyOf(payloads.entrySet());
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (insert, event) -> {
+            insert.setLong(1, event.getKey());
+            insert.setString(2, eventType.name());
+            insert.setObject(3, null);
+            insert.setString(4, event.getValue());
+            insert.setTimestamp(5, timestamp);
+        });
+    }
+
+    public List<OutboxEvent> findPending(int limit) {
+        return jdbcTemplate.query("select " + COLUMNS + " from outbox_events where published_at is null " +
+                "order by id limit " + limit, EVENT);
+    }
+
+    public long countPending() {
+        Long pending = jdbcTemplate.queryForObject(
+                "select count(*) from outbox_events where published_at is null", Long.class);
+        return pending != null ? pending : 0;
+    }
+
+    public Optional<LocalDateTime> findOldestPendingCreatedAt() {
+        return jdbcTemplate.query("select created_at from outbox_events where published_at is null " +
+                        "order by id limit 1", (rs, row) -> rs.getObject("created_at", LocalDateTime.class))
+                .stream().findFirst();
+    }
+
+    // Tail of the table, independent of what has been published
+    public List<OutboxEvent> findAfter(long id, int limit) {
+        return jdbcTemplate.query("select " + COLUMNS + " from outbox_events where id > ? order by id limit " + limit,
+                EVENT, id);
+    }
+
+    public List<OutboxEvent> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query("select " + COLUMNS + " from outbox_events where id in (" + placeholders(ids) + ")",
+                EVENT, ids.toArray());
+    }
+
+    public Optional<Long> findMaxId() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("select max(id) from outbox_events", Long.class));
+    }
+
+    public int markPublished(Collection<Long> ids, LocalDateTime publishedAt) {
+        Object[] args = new Object[ids.size() + 1];
+        args[0] = Timestamp.valueOf(publishedAt);
+        System.arraycopy(ids.toArray(), 0, args, 1, ids.size());
+        return jdbcTemplate.update("update outbox_events set published_at = ? where id in (" + placeholders(ids) + ")",
+                args);
+    }
+
+    public int deletePublishedBefore(LocalDateTime before) {
+        return jdbcTemplate.update("delete from outbox_events where published_at < ?", Timestamp.valueOf(before));
+    }
+
+    private static String placeholders(Collection<Long> ids) {
+        return String.join(", ", Collections.nCopies(ids.size(), "?"));
+    }
+}
\ No newline at end of file
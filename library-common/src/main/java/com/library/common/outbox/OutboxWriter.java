@@ -0,0 +1,47 @@
+package com.library.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Appends a change event to the outbox inside the caller's transaction, so the event commits or rolls back
+// with the change. Callers take the row lock on the aggregate first (update or flush), which keeps event ids
+// in commit order per aggregate.
+public class OutboxWriter {
+
+    private final OutboxStore outboxStore;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxStore outboxStore, ObjectMapper objectMapper) {
+        this.outboxStore = outboxStore;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long aggregateId, ChangeEventType eventType, Integer copiesDelta, Object payload) {
+        outboxStore.insert(aggregateId, eventType, copiesDelta, toJson(payload), LocalDateTime.now());
+    }
+
+    // One event per aggregate as a single JDBC batch, for bulk loads
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(ChangeEventType eventType, Map<Long, ?> payloads) {
+        Map<Long, String> json = new LinkedHashMap<>();
+        payloads.forEach((aggregateId, payload) -> json.put(aggregateId, toJson(payload)));
+        outboxStore.insertAll(eventType, json, LocalDateTime.now());
+    }
+
+    private String toJson(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox payload", ex);
+        }
+    }
+}
\ No newline at end of file
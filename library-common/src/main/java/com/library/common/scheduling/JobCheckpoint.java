@@ -0,0 +1,7 @@
+package com.library.common.scheduling;
+
+import java.time.LocalDate;
+
+// Keyset position of a chunked job: rows are visited in (date, id) order, or by id alone with a null date
+public record JobCheckpoint(LocalDate date, long id) {
+}
\ No newline at end of file
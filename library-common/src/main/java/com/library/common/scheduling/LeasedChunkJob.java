@@ -0,0 +1,201 @@
+package com.library.common.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Walks a table in keyset order, one short transaction per chunk. Every replica schedules the job;
+// its row in scheduled_jobs is a lease that lets only one of them do the work, and the checkpoint kept
+// there lets an interrupted run resume where it stopped. Runs are published as library.job.* meters.
+@Slf4j
+public abstract class LeasedChunkJob {
+
+    private final String name;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration lockAtMostFor;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean leaseHeld = new AtomicBoolean();
+    private final Timer completedRuns;
+    private final Timer interruptedRuns;
+    private final Counter skippedRuns;
+    private final Counter scannedRows;
+    private final Counter updatedRows;
+
+    protected LeasedChunkJob(String name,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             int chunkSize,
+                             Duration lockAtMostFor) {
+        this.name = name;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.lockAtMostFor = lockAtMostFor;
+        this.completedRuns = runTimer(meterRegistry, "completed");
+        this.interruptedRuns = runTimer(meterRegistry, "interrupted");
+        this.skippedRuns = Counter.builder("library.job.skipped")
+                .description("Runs skipped because another node held the lease")
+                .tag("job", name)
+                .register(meterRegistry);
+        this.scannedRows = Counter.builder("library.job.rows.scanned").tag("job", name).register(meterRegistry);
+        this.updatedRows = Counter.builder("library.job.rows.updated").tag("job", name).register(meterRegistry);
+        Gauge.builder("library.job.lease.held", leaseHeld, held -> held.get() ? 1 : 0)
+                .description("1 while this node holds the lease and runs the job")
+                .tag("job", name)
+                .register(meterRegistry);
+    }
+
+    // Next rows after the checkpoint (from the start when it is null), at most limit of them, in (date, id) order
+    protected abstract List<JobCheckpoint> nextChunk(JobCheckpoint after, int limit);
+
+    // Applies the job to a chunk; runs in the transaction that moves the checkpoint past it
+    protected abstract int process(List<JobCheckpoint> chunk);
+
+    // Whether a completed run keeps its checkpoint. A job over rows that need visiting only once uses it as a
+    // high-water mark, so the next run starts at the rows added since instead of at the beginning
+    protected boolean keepsCheckpoint() {
+        return false;
+    }
+
+    public void run() {
+        // The lease lets its holder re-enter, so keep a manual run and the schedule apart on this node too
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Job {} is already running on this node", name);
+            return;
+        }
+        try {
+            runWithLease();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runWithLease() {
+        createJobRowIfMissing();
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (!acquireLease(startedAt)) {
+            log.debug("Job {} is already running on another node", name);
+            skippedRuns.increment();
+            return;
+        }
+
+        leaseHeld.set(true);
+        long started = System.nanoTime();
+        long scanned = 0;
+        long updated = 0;
+        boolean completed = false;
+        try {
+            JobCheckpoint after = loadCheckpoint();
+            if (after != null && !keepsCheckpoint()) {
+                log.info("Resuming job {} after row {} dated {}", name, after.id(), after.date());
+            }
+
+            while (true) {
+                List<JobCheckpoint> chunk = nextChunk(after, chunkSize);
+                if (chunk.isEmpty()) {
+                    completed = true;
+                    break;
+                }
+                int count = processChunk(chunk);
+                updated += count;
+                scanned += chunk.size();
+                updatedRows.increment(count);
+                scannedRows.increment(chunk.size());
+                after = chunk.get(chunk.size() - 1);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Job {} stopped after {} rows, it will resume from its checkpoint", name, scanned, ex);
+        } finally {
+            Duration duration = Duration.ofNanos(System.nanoTime() - started);
+            (completed ? completedRuns : interruptedRuns).record(duration);
+            recordRun(startedAt, scanned, updated, duration, completed);
+            leaseHeld.set(false);
+        }
+    }
+
+    // Processes the chunk and moves the checkpoint in the same transaction, so a crash never skips rows
+    private int processChunk(List<JobCheckpoint> chunk) {
+        JobCheckpoint last = chunk.get(chunk.size() - 1);
+        return transactionTemplate.execute(status -> {
+            int count = process(chunk);
+            int held = jdbcTemplate.update(
+                    "update scheduled_jobs set checkpoint_due_date = ?, checkpoint_id = ?, locked_until = ? " +
+                            "where name = ? and locked_by = ?",
+                    last.date(), last.id(), LocalDateTime.now().plus(lockAtMostFor), name, owner);
+            if (held == 0) {
+                throw new IllegalStateException("Lease on " + name + " was taken over by another node");
+            }
+            return count;
+        });
+    }
+
+    // Takes the lease when it is free or expired; the current holder may also extend it
+    private boolean acquireLease(LocalDateTime now) {
+        Integer locked = transactionTemplate.execute(status -> jdbcTemplate.update(
+                "update scheduled_jobs set locked_by = ?, locked_until = ? " +
+                        "where name = ? and (locked_until is null or locked_until < ? or locked_by = ?)",
+                owner, now.plus(lockAtMostFor), name, now, owner));
+        return locked != null && locked > 0;
+    }
+
+    private JobCheckpoint loadCheckpoint() {
+        return jdbcTemplate.query("select checkpoint_due_date, checkpoint_id from scheduled_jobs where name = ?",
+                rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    LocalDate date = rs.getObject("checkpoint_due_date", LocalDate.class);
+                    long id = rs.getLong("checkpoint_id");
+                    return rs.wasNull() ? null : new JobCheckpoint(date, id);
+                }, name);
+    }
+
+    private void createJobRowIfMissing() {
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from scheduled_jobs where name = ?",
+                Integer.class, name);
+        if (rows != null && rows > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("insert into scheduled_jobs (name) values (?)", name);
+        } catch (DuplicateKeyException ex) {
+            // Another replica inserted it first
+        }
+    }
+
+    // Keeps the figures of the last run next to the lease, so every replica sees them, and releases the lease
+    private void recordRun(LocalDateTime startedAt, long scanned, long updated, Duration duration, boolean completed) {
+        String clearCheckpoint = completed && !keepsCheckpoint()
+                ? ", checkpoint_due_date = null, checkpoint_id = null"
+                : "";
+        jdbcTemplate.update("update scheduled_jobs set last_run_started_at = ?, last_run_finished_at = ?, " +
+                        "last_run_scanned = ?, last_run_updated = ?, last_run_duration_ms = ?, " +
+                        "locked_by = null, locked_until = null" + clearCheckpoint + " where name = ? and locked_by = ?",
+                startedAt, LocalDateTime.now(), scanned, updated, duration.toMillis(), name, owner);
+        log.info("Job {} scanned {} rows, updated {} in {} ms", name, scanned, updated, duration.toMillis());
+    }
+
+    private Timer runTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("library.job.runs")
+                .description("Runs that held the lease, by whether they reached the end of the table")
+                .tag("job", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.library.common.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// In-memory index built from the database and kept current by applying changes once they commit. A rebuild reads
+// the table into a fresh state while the current one keeps serving; changes applied meanwhile are recorded and
+// replayed on the fresh state before it replaces the current one, so the swap loses none of them.
+// Readers hold the read lock while they use the state; changes and the swap take the write lock.
+@Slf4j
+public abstract class RebuildableIndex<S> {
+
+    private final String name;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private S state;
+    private List<Consumer<S>> changesDuringRebuild;
+    private volatile boolean ready;
+    private volatile LocalDateTime lastRebuildAt;
+    private volatile long lastRebuildMs;
+
+    protected RebuildableIndex(String name, PlatformTransactionManager transactionManager, S empty) {
+        this.name = name;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.state = empty;
+    }
+
+    // Reads the whole table into a new state, inside a read-only transaction
+    protected abstract S load();
+
+    // Size of a state for the rebuild log line
+    protected abstract String describe(S state);
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                return;
+            }
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.nanoTime();
+        S fresh;
+        try {
+            fresh = readOnlyTransaction.execute(status -> load());
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("{} rebuild failed, keeping the current index: {}", name, ex.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> change.accept(fresh));
+            changesDuringRebuild = null;
+            state = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastRebuildAt = LocalDateTime.now();
+        lastRebuildMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("{} rebuilt: {} in {} ms", name, describe(fresh), lastRebuildMs);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public LocalDateTime getLastRebuildAt() {
+        return lastRebuildAt;
+    }
+
+    public long getLastRebuildMs() {
+        return lastRebuildMs;
+    }
+
+    protected <R> R read(Function<S, R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected void apply(Consumer<S> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called inside the write transaction; the index only changes if it commits
+    protected void applyAfterCommit(Consumer<S> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+}
\ No newline at end of file
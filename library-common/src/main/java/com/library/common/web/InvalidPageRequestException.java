@@ -0,0 +1,8 @@
+package com.library.common.web;
+
+// A page size or cursor the client sent that cannot be served; every application maps it to 400
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
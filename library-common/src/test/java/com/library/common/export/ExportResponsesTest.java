@@ -0,0 +1,72 @@
+package com.library.common.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExportResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void writesQuotedCsvWithAHeader() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = export(ExportFormat.CSV, false);
+
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(new MediaType("text", "csv"))).isTrue();
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).contains("loans.csv");
+        assertThat(body(response, false)).isEqualTo(String.join(",", LoanExportRow.CSV_HEADER) + "\r\n" +
+                "1,2024-01-15,2024-02-15,,ACTIVE,7,\"Dune, Messiah\",9780441013593,Herbert,9,Ann,\"O\"\"Neil\"," +
+                "ann@example.com\r\n");
+    }
+
+    @Test
+    void writesGzippedNdjson() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = export(ExportFormat.NDJSON, true);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(new MediaType("application", "gzip"));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).contains("loans.ndjson.gz");
+        String body = body(response, true);
+        assertThat(body).endsWith("\n");
+        assertThat(objectMapper.readValue(body, LoanExportRow.class)).isEqualTo(row());
+    }
+
+    @Test
+    void rejectsAnUnknownFormat() {
+        assertThat(ExportFormat.parse(" NDJSON ")).isEqualTo(ExportFormat.NDJSON);
+        assertThatThrownBy(() -> ExportFormat.parse("xlsx")).isInstanceOf(InvalidExportRequestException.class);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ExportFormat format, boolean gzip) {
+        Consumer<Consumer<LoanExportRow>> producer = consumer -> consumer.accept(row());
+        return ExportResponses.export(objectMapper, format, gzip, "loans", LoanExportRow.CSV_HEADER,
+                LoanExportRow::csvValues, producer);
+    }
+
+    private String body(ResponseEntity<StreamingResponseBody> response, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        byte[] bytes = gzip ? new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes()
+                : out.toByteArray();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private LoanExportRow row() {
+        return new LoanExportRow(1L, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 15), null, "ACTIVE",
+                7L, "Dune, Messiah", "9780441013593", "Herbert", 9L, "Ann", "O\"Neil", "ann@example.com");
+    }
+}
\ No newline at end of file
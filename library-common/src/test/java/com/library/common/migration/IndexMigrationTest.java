@@ -0,0 +1,66 @@
+package com.library.common.migration;
+
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndexMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:index_migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @BeforeEach
+    void createTable() {
+        jdbcTemplate.execute("create table loans (id bigint primary key, status varchar(16), due_date date)");
+    }
+
+    @AfterEach
+    void dropAll() {
+        jdbcTemplate.execute("drop all objects");
+    }
+
+    @Test
+    void createsMissingIndex() throws Exception {
+        migrate();
+
+        assertThat(indexCount()).isEqualTo(1);
+    }
+
+    @Test
+    void adoptsIndexHibernateAlreadyCreated() throws Exception {
+        jdbcTemplate.execute("create index idx_loans_status_due_date on loans (status, due_date)");
+
+        migrate();
+
+        assertThat(indexCount()).isEqualTo(1);
+    }
+
+    private void migrate() throws Exception {
+        try (var connection = dataSource.getConnection()) {
+            Context context = mock(Context.class);
+            when(context.getConnection()).thenReturn(connection);
+            new V2__status_due_date_index().migrate(context);
+        }
+    }
+
+    static class V2__status_due_date_index extends IndexMigration {
+        @Override
+        public void migrate(Context context) throws Exception {
+            createIndexIfMissing(context, "loans", "idx_loans_status_due_date", "status, due_date");
+        }
+    }
+
+    private Integer indexCount() {
+        return jdbcTemplate.queryForObject("select count(*) from information_schema.indexes "
+                + "where table_name = 'loans' and index_name = 'idx_loans_status_due_date'", Integer.class);
+    }
+}
\ No newline at end of file
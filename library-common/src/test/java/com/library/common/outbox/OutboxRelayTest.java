@@ -0,0 +1,159 @@
+package com.library.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class OutboxRelayTest {
+
+    private static final String URL = "jdbc:h2:mem:outbox_relay;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxStore outboxStore = new OutboxStore(jdbcTemplate);
+    private final InMemoryChangeEventTransport transport = new InMemoryChangeEventTransport();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void createTable() {
+        jdbcTemplate.execute("create table outbox_events (id bigint auto_increment primary key, " +
+                "aggregate_id bigint not null, event_type varchar(32) not null, copies_delta integer, " +
+                "payload text, created_at datetime(6) not null, published_at datetime(6))");
+        // H2 has no named locks; these stand in for MySQL's
+        jdbcTemplate.execute("create alias get_lock for '" + NamedLocks.class.getName() + ".getLock'");
+        jdbcTemplate.execute("create alias release_lock for '" + NamedLocks.class.getName() + ".releaseLock'");
+        NamedLocks.heldElsewhere.set(false);
+        relay = new OutboxRelay(outboxStore, transport, dataSource, new ObjectMapper(),
+                new DataSourceTransactionManager(dataSource), meterRegistry, "book", 2, Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void dropAll() {
+        jdbcTemplate.execute("drop all objects");
+    }
+
+    @Test
+    void publishesPendingEventsInOrderAndMarksThemPublished() {
+        append(1L, ChangeEventType.CREATED, null);
+        append(1L, ChangeEventType.INVENTORY_CHANGED, -1);
+        append(2L, ChangeEventType.DELETED, null);
+
+        relay.relay();
+
+        assertThat(transport.published())
+                .extracting(ChangeEventDTO::getAggregateId, ChangeEventDTO::getEventType,
+                        ChangeEventDTO::getCopiesDelta)
+                .containsExactly(tuple(1L, "CREATED", null), tuple(1L, "INVENTORY_CHANGED", -1),
+                        tuple(2L, "DELETED", null));
+        assertThat(transport.published()).allSatisfy(event -> {
+            assertThat(event.getAggregateType()).isEqualTo("book");
+            assertThat(event.getPayload().get("title").asText()).isEqualTo("Dune");
+        });
+        assertThat(outboxStore.countPending()).isZero();
+        assertThat(counter("library.outbox.published")).isEqualTo(3);
+    }
+
+    @Test
+    void stopsAtAFailedBatchAndSendsItAgainOnTheNextPass() {
+        append(1L, ChangeEventType.CREATED, null);
+        append(2L, ChangeEventType.CREATED, null);
+        append(3L, ChangeEventType.CREATED, null);
+        AtomicBoolean down = new AtomicBoolean(true);
+        transport.subscribe(events -> {
+            if (down.get()) {
+                throw new IllegalStateException("subscriber unavailable");
+            }
+        });
+
+        relay.relay();
+
+        assertThat(outboxStore.countPending()).isEqualTo(3);
+        assertThat(counter("library.outbox.failed.batches")).isEqualTo(1);
+
+        down.set(false);
+        relay.relay();
+
+        assertThat(transport.published()).extracting(ChangeEventDTO::getAggregateId).containsExactly(1L, 2L, 3L);
+        assertThat(outboxStore.countPending()).isZero();
+    }
+
+    @Test
+    void leavesTheOutboxToTheReplicaHoldingTheLock() {
+        append(1L, ChangeEventType.CREATED, null);
+        NamedLocks.heldElsewhere.set(true);
+
+        relay.relay();
+
+        assertThat(transport.published()).isEmpty();
+        assertThat(outboxStore.countPending()).isEqualTo(1);
+    }
+
+    @Test
+    void publishesTheBacklogAndItsAgeAsGauges() {
+        jdbcTemplate.update("insert into outbox_events (aggregate_id, event_type, created_at) values (1, 'CREATED', ?)",
+                LocalDateTime.now().minusMinutes(5));
+        append(2L, ChangeEventType.CREATED, null);
+
+        assertThat(meterRegistry.get("library.outbox.pending").tag("aggregate", "book").gauge().value())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("library.outbox.oldest.pending.age").timeGauge().value(TimeUnit.MINUTES))
+                .isBetween(4.9, 6.0);
+
+        relay.relay();
+
+        assertThat(meterRegistry.get("library.outbox.pending").gauge().value()).isZero();
+        assertThat(meterRegistry.get("library.outbox.oldest.pending.age").timeGauge().value(TimeUnit.SECONDS))
+                .isZero();
+    }
+
+    @Test
+    void purgeKeepsUnpublishedAndRecentEvents() {
+        long old = append(1L, ChangeEventType.CREATED, null);
+        long recent = append(2L, ChangeEventType.CREATED, null);
+        append(3L, ChangeEventType.CREATED, null);
+        outboxStore.markPublished(List.of(old), LocalDateTime.now().minusDays(8));
+        outboxStore.markPublished(List.of(recent), LocalDateTime.now().minusDays(1));
+
+        relay.purge();
+
+        assertThat(jdbcTemplate.queryForList("select aggregate_id from outbox_events order by id", Long.class))
+                .containsExactly(2L, 3L);
+    }
+
+    private long append(Long aggregateId, ChangeEventType eventType, Integer copiesDelta) {
+        return outboxStore.insert(aggregateId, eventType, copiesDelta, "{\"title\":\"Dune\"}", LocalDateTime.now());
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("aggregate", "book").counter().count();
+    }
+
+    public static class NamedLocks {
+
+        static final AtomicBoolean heldElsewhere = new AtomicBoolean();
+
+        public static int getLock(String name, int timeout) {
+            return heldElsewhere.get() ? 0 : 1;
+        }
+
+        public static int releaseLock(String name) {
+            return 1;
+        }
+    }
+}
\ No newline at end of file
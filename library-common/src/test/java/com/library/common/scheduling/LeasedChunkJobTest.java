@@ -0,0 +1,178 @@
+package com.library.common.scheduling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeasedChunkJobTest {
+
+    private static final String URL = "jdbc:h2:mem:leased_chunk_job;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void createTables() {
+        jdbcTemplate.execute("create table scheduled_jobs (name varchar(64) primary key, locked_by varchar(255), " +
+                "locked_until datetime(6), checkpoint_due_date date, checkpoint_id bigint, " +
+                "last_run_started_at datetime(6), last_run_finished_at datetime(6), last_run_scanned bigint, " +
+                "last_run_updated bigint, last_run_duration_ms bigint)");
+        jdbcTemplate.execute("create table loans (id bigint primary key, due_date date, status varchar(16))");
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (long id = 1; id <= 25; id++) {
+            jdbcTemplate.update("insert into loans values (?, ?, 'ACTIVE')", id, start.plusDays(id % 7));
+        }
+    }
+
+    @AfterEach
+    void dropAll() {
+        jdbcTemplate.execute("drop all objects");
+    }
+
+    @Test
+    void processesEveryRowInChunksAndPublishesTheRun() {
+        new OverdueJob(-1).run();
+
+        assertThat(count("status = 'OVERDUE'")).isEqualTo(25);
+        assertThat(meterRegistry.get("library.job.rows.scanned").counter().count()).isEqualTo(25);
+        assertThat(meterRegistry.get("library.job.rows.updated").counter().count()).isEqualTo(25);
+        assertThat(meterRegistry.get("library.job.runs").tag("outcome", "completed").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("library.job.lease.held").gauge().value()).isZero();
+        assertThat(jdbcTemplate.queryForMap("select * from scheduled_jobs where name = 'overdue-loans'"))
+                .containsEntry("locked_by", null)
+                .containsEntry("checkpoint_id", null)
+                .containsEntry("last_run_scanned", 25L);
+    }
+
+    @Test
+    void skipsWhileAnotherNodeHoldsTheLease() {
+        jdbcTemplate.update("insert into scheduled_jobs (name, locked_by, locked_until) values ('overdue-loans', " +
+                "'other-node', ?)", LocalDateTime.now().plusMinutes(5));
+
+        new OverdueJob(-1).run();
+
+        assertThat(count("status = 'OVERDUE'")).isZero();
+        assertThat(meterRegistry.get("library.job.skipped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("library.job.runs").timer().count()).isZero();
+    }
+
+    @Test
+    void takesOverAnExpiredLease() {
+        jdbcTemplate.update("insert into scheduled_jobs (name, locked_by, locked_until) values ('overdue-loans', " +
+                "'crashed-node', ?)", LocalDateTime.now().minusMinutes(1));
+
+        new OverdueJob(-1).run();
+
+        assertThat(count("status = 'OVERDUE'")).isEqualTo(25);
+    }
+
+    @Test
+    void resumesAnInterruptedRunFromItsCheckpoint() {
+        new OverdueJob(2).run();
+
+        // The first two chunks committed with their checkpoint, the third rolled back
+        assertThat(count("status = 'OVERDUE'")).isEqualTo(20);
+        assertThat(meterRegistry.get("library.job.runs").tag("outcome", "interrupted").timer().count()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select checkpoint_id from scheduled_jobs", Long.class)).isNotNull();
+
+        new OverdueJob(-1).run();
+
+        assertThat(count("status = 'OVERDUE'")).isEqualTo(25);
+        assertThat(jdbcTemplate.queryForObject("select last_run_scanned from scheduled_jobs", Long.class)).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("select checkpoint_id from scheduled_jobs", Long.class)).isNull();
+    }
+
+    @Test
+    void highWaterMarkJobOnlyVisitsRowsAddedSinceItsLastRun() {
+        TagJob job = new TagJob();
+        job.run();
+        assertThat(count("status = 'TAGGED'")).isEqualTo(25);
+
+        jdbcTemplate.update("insert into loans values (26, date '2024-02-01', 'ACTIVE')");
+        job.run();
+
+        assertThat(count("status = 'TAGGED'")).isEqualTo(26);
+        assertThat(jdbcTemplate.queryForObject("select last_run_scanned from scheduled_jobs", Long.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select checkpoint_id from scheduled_jobs", Long.class)).isEqualTo(26);
+    }
+
+    private int count(String where) {
+        return jdbcTemplate.queryForObject("select count(*) from loans where " + where, Integer.class);
+    }
+
+    // Marks loans overdue ten at a time; fails on the chunk after failAfterChunks, when that is not negative
+    private class OverdueJob extends LeasedChunkJob {
+
+        private final int failAfterChunks;
+        private int chunks;
+
+        OverdueJob(int failAfterChunks) {
+            super("overdue-loans", jdbcTemplate, new DataSourceTransactionManager(dataSource), meterRegistry,
+                    10, Duration.ofMinutes(10));
+            this.failAfterChunks = failAfterChunks;
+        }
+
+        @Override
+        protected List<JobCheckpoint> nextChunk(JobCheckpoint after, int limit) {
+            String sql = "select id, due_date from loans where status = 'ACTIVE'" +
+                    (after == null ? "" : " and (due_date > ? or (due_date = ? and id > ?))") +
+                    " order by due_date, id limit " + limit;
+            Object[] args = after == null ? new Object[0] : new Object[]{after.date(), after.date(), after.id()};
+            return jdbcTemplate.query(sql,
+                    (rs, row) -> new JobCheckpoint(rs.getObject("due_date", LocalDate.class), rs.getLong("id")), args);
+        }
+
+        @Override
+        protected int process(List<JobCheckpoint> chunk) {
+            int updated = 0;
+            for (JobCheckpoint loan : chunk) {
+                updated += jdbcTemplate.update("update loans set status = 'OVERDUE' where id = ?", loan.id());
+            }
+            if (chunks++ == failAfterChunks) {
+                throw new IllegalStateException("database went away");
+            }
+            return updated;
+        }
+    }
+
+    // Walks every loan by id once, keeping its position between runs
+    private class TagJob extends LeasedChunkJob {
+
+        TagJob() {
+            super("tag-loans", jdbcTemplate, new DataSourceTransactionManager(dataSource), meterRegistry,
+                    10, Duration.ofMinutes(10));
+        }
+
+        @Override
+        protected boolean keepsCheckpoint() {
+            return true;
+        }
+
+        @Override
+        protected List<JobCheckpoint> nextChunk(JobCheckpoint after, int limit) {
+            return jdbcTemplate.query("select id from loans where id > ? order by id limit " + limit,
+                    (rs, row) -> new JobCheckpoint(null, rs.getLong("id")), after == null ? 0 : after.id());
+        }
+
+        @Override
+        protected int process(List<JobCheckpoint> chunk) {
+            int updated = 0;
+            for (JobCheckpoint loan : chunk) {
+                updated += jdbcTemplate.update("update loans set status = 'TAGGED' where id = ?", loan.id());
+            }
+            return updated;
+        }
+    }
+}
\ No newline at end of file
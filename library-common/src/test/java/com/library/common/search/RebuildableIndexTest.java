@@ -0,0 +1,116 @@
+package com.library.common.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RebuildableIndexTest {
+
+    private static final String URL = "jdbc:h2:mem:index_rebuild;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+    @BeforeEach
+    void createTable() {
+        jdbcTemplate.execute("create table names (name varchar(64) primary key)");
+        jdbcTemplate.update("insert into names values ('ada'), ('grace')");
+    }
+
+    @AfterEach
+    void dropAll() {
+        jdbcTemplate.execute("drop all objects");
+    }
+
+    @Test
+    void replaysChangesAppliedWhileTheTableIsRead() {
+        NameIndex index = new NameIndex();
+        index.rebuild();
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.names()).containsExactly("ada", "grace");
+
+        // A change that commits after the rebuild has read its row must survive the swap
+        index.duringLoad = state -> index.change(names -> names.add("linus"));
+        index.rebuild();
+
+        assertThat(index.names()).containsExactly("ada", "grace", "linus");
+        assertThat(index.getLastRebuildAt()).isNotNull();
+    }
+
+    @Test
+    void appliesChangesOnlyOnceTheirTransactionCommits() {
+        NameIndex index = new NameIndex();
+        index.rebuild();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            index.changeAfterCommit(names -> names.add("barbara"));
+            assertThat(index.names()).doesNotContain("barbara");
+        });
+        transaction.executeWithoutResult(status -> {
+            index.changeAfterCommit(names -> names.add("edsger"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(index.names()).containsExactly("ada", "grace", "barbara");
+    }
+
+    @Test
+    void keepsTheCurrentStateWhenARebuildFails() {
+        NameIndex index = new NameIndex();
+        index.rebuild();
+        jdbcTemplate.execute("drop table names");
+
+        index.rebuild();
+
+        assertThat(index.names()).containsExactly("ada", "grace");
+        // Changes are no longer recorded for a rebuild that gave up
+        index.change(names -> names.add("alan"));
+        assertThat(index.names()).containsExactly("ada", "grace", "alan");
+    }
+
+    private class NameIndex extends RebuildableIndex<List<String>> {
+
+        private Consumer<List<String>> duringLoad = state -> {
+        };
+
+        NameIndex() {
+            super("Name index", transactionManager, new ArrayList<>());
+        }
+
+        @Override
+        protected List<String> load() {
+            List<String> fresh = new ArrayList<>(jdbcTemplate.queryForList("select name from names order by name",
+                    String.class));
+            duringLoad.accept(fresh);
+            return fresh;
+        }
+
+        @Override
+        protected String describe(List<String> state) {
+            return state.size() + " names";
+        }
+
+        List<String> names() {
+            return read(List::copyOf);
+        }
+
+        void change(Consumer<List<String>> change) {
+            apply(change);
+        }
+
+        void changeAfterCommit(Consumer<List<String>> change) {
+            applyAfterCommit(change);
+        }
+    }
+}
\ No newline at end of file
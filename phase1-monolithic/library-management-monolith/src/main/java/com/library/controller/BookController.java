@@ -1,5 +1,8 @@
 package com.library.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.web.CursorPage;
+import com.library.common.web.NdjsonResponses;
 import com.library.dto.BookDTO;
 import com.library.service.BookService;
 import jakarta.validation.Valid;
@@ -7,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
@@ -15,12 +19,29 @@ import java.util.List;
 public class BookController {
 
     private final BookService bookService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public ResponseEntity<List<BookDTO>> getAllBooks() {
         return ResponseEntity.ok(bookService.getAllBooks());
     }
 
+    @GetMapping(params = "size")
+    public ResponseEntity<CursorPage<BookDTO>> getBooksPage(@RequestParam(required = false) String cursor,
+                                                            @RequestParam int size) {
+        return ResponseEntity.ok(bookService.getBooksPage(cursor, size));
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        return NdjsonResponses.stream(objectMapper, bookService::streamAllBooks);
+    }
+
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<BookDTO> getBookByIsbn(@PathVariable String isbn) {
+        return ResponseEntity.ok(bookService.getBookByIsbn(isbn));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookDTO> getBookById(@PathVariable Long id) {
         return ResponseEntity.ok(bookService.getBookById(id));
@@ -0,0 +1,20 @@
+package com.library.controller;
+
+import com.library.dto.CacheStatsDTO;
+import com.library.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cache/stats")
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final CacheStatsService cacheStatsService;
+
+    @GetMapping
+    public ResponseEntity<CacheStatsDTO> getStats() {
+        return ResponseEntity.ok(cacheStatsService.stats());
+    }
+}
\ No newline at end of file
@@ -1,13 +1,25 @@
 package com.library.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.export.ExportFormat;
+import com.library.common.export.ExportResponses;
+import com.library.common.export.LoanExportRow;
+import com.library.common.web.CursorPage;
+import com.library.common.web.NdjsonResponses;
 import com.library.dto.LoanDTO;
+import com.library.dto.LoanExpand;
 import com.library.dto.LoanResponseDTO;
+import com.library.entity.Loan;
+import com.library.exception.BusinessException;
 import com.library.service.LoanService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,25 +28,83 @@ import java.util.List;
 public class LoanController {
 
     private final LoanService loanService;
+    private final ObjectMapper objectMapper;
 
+    // Every read takes ?expand=none|book|member|all (default all); none returns LoanSummary rows without joins
     @GetMapping
-    public ResponseEntity<List<LoanResponseDTO>> getAllLoans() {
-        return ResponseEntity.ok(loanService.getAllLoans());
+    public ResponseEntity<List<?>> getAllLoans(@RequestParam(defaultValue = "all") String expand) {
+        LoanExpand loanExpand = LoanExpand.parse(expand);
+        if (loanExpand == LoanExpand.NONE) {
+            return ResponseEntity.ok(loanService.getAllLoanSummaries());
+        }
+        return ResponseEntity.ok(loanService.getAllLoans(loanExpand));
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<CursorPage<?>> getLoansPage(@RequestParam(required = false) String cursor,
+                                                      @RequestParam int size,
+                                                      @RequestParam(defaultValue = "all") String expand) {
+        LoanExpand loanExpand = LoanExpand.parse(expand);
+        if (loanExpand == LoanExpand.NONE) {
+            return ResponseEntity.ok(loanService.getLoanSummariesPage(cursor, size));
+        }
+        return ResponseEntity.ok(loanService.getLoansPage(cursor, size, loanExpand));
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllLoans(@RequestParam(defaultValue = "all") String expand) {
+        LoanExpand loanExpand = LoanExpand.parse(expand);
+        if (loanExpand == LoanExpand.NONE) {
+            return NdjsonResponses.stream(objectMapper, loanService::streamAllLoanSummaries);
+        }
+        return NdjsonResponses.<LoanResponseDTO>stream(objectMapper,
+                consumer -> loanService.streamAllLoans(loanExpand, consumer));
+    }
+
+    // Reporting download: loans taken out between from and to (inclusive), gzip-compressed unless gzip=false
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLoans(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Loan.LoanStatus status,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "true") boolean gzip) {
+        // Checked here: once the body starts streaming the status line is already sent
+        if (from.isAfter(to)) {
+            throw new BusinessException("Export range starts after it ends: " + from + " > " + to);
+        }
+        return ExportResponses.<LoanExportRow>export(objectMapper, ExportFormat.parse(format), gzip,
+                "loans-" + from + "-" + to, LoanExportRow.CSV_HEADER, LoanExportRow::csvValues,
+                consumer -> loanService.exportLoans(from, to, status, consumer));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<LoanResponseDTO> getLoanById(@PathVariable Long id) {
-        return ResponseEntity.ok(loanService.getLoanById(id));
+    public ResponseEntity<?> getLoanById(@PathVariable Long id, @RequestParam(defaultValue = "all") String expand) {
+        LoanExpand loanExpand = LoanExpand.parse(expand);
+        if (loanExpand == LoanExpand.NONE) {
+            return ResponseEntity.ok(loanService.getLoanSummaryById(id));
+        }
+        return ResponseEntity.ok(loanService.getLoanById(id, loanExpand));
     }
 
     @GetMapping("/member/{memberId}")
-    public ResponseEntity<List<LoanResponseDTO>> getLoansByMember(@PathVariable Long memberId) {
-        return ResponseEntity.ok(loanService.getLoansByMemberId(memberId));
+    public ResponseEntity<List<?>> getLoansByMember(@PathVariable Long memberId,
+                                                    @RequestParam(defaultValue = "all") String expand) {
+        LoanExpand loanExpand = LoanExpand.parse(expand);
+        if (loanExpand == LoanExpand.NONE) {
+            return ResponseEntity.ok(loanService.getLoanSummariesByMemberId(memberId));
+        }
+        return ResponseEntity.ok(loanService.getLoansByMemberId(memberId, loanExpand));
     }
 
     @GetMapping("/book/{bookId}")
-    public ResponseEntity<List<LoanResponseDTO>> getLoansByBook(@PathVariable Long bookId) {
-        return ResponseEntity.ok(loanService.getLoansByBookId(bookId));
+    public ResponseEntity<List<?>> getLoansByBook(@PathVariable Long bookId,
+                                                  @RequestParam(defaultValue = "all") String expand) {
+        LoanExpand loanExpand = LoanExpand.parse(expand);
+        if (loanExpand == LoanExpand.NONE) {
+            return ResponseEntity.ok(loanService.getLoanSummariesByBookId(bookId));
+        }
+        return ResponseEntity.ok(loanService.getLoansByBookId(bookId, loanExpand));
     }
 
     @PostMapping
@@ -1,5 +1,8 @@
 package com.library.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.web.CursorPage;
+import com.library.common.web.NdjsonResponses;
 import com.library.dto.MemberDTO;
 import com.library.service.MemberService;
 import jakarta.validation.Valid;
@@ -7,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
@@ -15,12 +19,29 @@ import java.util.List;
 public class MemberController {
 
     private final MemberService memberService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public ResponseEntity<List<MemberDTO>> getAllMembers() {
         return ResponseEntity.ok(memberService.getAllMembers());
     }
 
+    @GetMapping(params = "size")
+    public ResponseEntity<CursorPage<MemberDTO>> getMembersPage(@RequestParam(required = false) String cursor,
+                                                                @RequestParam int size) {
+        return ResponseEntity.ok(memberService.getMembersPage(cursor, size));
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllMembers() {
+        return NdjsonResponses.stream(objectMapper, memberService::streamAllMembers);
+    }
+
+    @GetMapping("/email/{email}")
+    public ResponseEntity<MemberDTO> getMemberByEmail(@PathVariable String email) {
+        return ResponseEntity.ok(memberService.getMemberByEmail(email));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MemberDTO> getMemberById(@PathVariable Long id) {
         return ResponseEntity.ok(memberService.getMemberById(id));
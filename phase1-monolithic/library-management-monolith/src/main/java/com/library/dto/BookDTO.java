@@ -34,4 +34,7 @@ public class BookDTO {
     @NotNull(message = "Available copies is required")
     @Min(value = 0, message = "Available copies cannot be negative")
     private Integer availableCopies;
+
+    // The version the client read; an update carrying an older one is rejected, as checkouts changed the count
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsDTO {
+    private String region;
+    private Long hits;
+    private Long misses;
+    private Long puts;
+    private Double hitRatio;
+    // -1 when the cache provider does not report it
+    private Long elementsInMemory;
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private Boolean secondLevelCacheEnabled;
+    private Boolean statisticsEnabled;
+    private Long secondLevelCacheHits;
+    private Long secondLevelCacheMisses;
+    private Long secondLevelCachePuts;
+    private Long queryCacheHits;
+    private Long queryCacheMisses;
+    private Long queryCachePuts;
+    // SQL statements prepared since startup, to compare against the hits above
+    private Long statementsPrepared;
+    private List<CacheRegionStatsDTO> regions;
+}
\ No newline at end of file
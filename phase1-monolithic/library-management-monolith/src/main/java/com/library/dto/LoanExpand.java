@@ -0,0 +1,25 @@
+package com.library.dto;
+
+import com.library.exception.BusinessException;
+
+// Which related resources a loan read embeds; NONE skips enrichment and returns LoanSummary rows
+public enum LoanExpand {
+    NONE, BOOK, MEMBER, ALL;
+
+    public static LoanExpand parse(String value) {
+        for (LoanExpand expand : values()) {
+            if (expand.name().equalsIgnoreCase(value.trim())) {
+                return expand;
+            }
+        }
+        throw new BusinessException("Invalid expand: " + value + " (expected none, book, member or all)");
+    }
+
+    public boolean includesBook() {
+        return this == BOOK || this == ALL;
+    }
+
+    public boolean includesMember() {
+        return this == MEMBER || this == ALL;
+    }
+}
\ No newline at end of file
@@ -4,10 +4,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
+// Only cached under the l2-cache profile. Edits go through the entity and update the cached copy on commit;
+// checkouts and returns change availableCopies with a conditional update, which evicts only the changed book, once
+// right away and again after commit; the rest of the region stays cached.
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
 @Table(name = "books")
 @Data
 @NoArgsConstructor
@@ -33,6 +40,12 @@ public class Book {
     @Column(nullable = false)
     private Integer availableCopies;
 
+    // Bumped by every write, the copy counter updates in BookRepository included, so an edit based on a stale
+    // read fails instead of overwriting a checkout that committed in between
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL)
     private List<Loan> loans = new ArrayList<>();
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.library.mapper;
 import com.library.dto.BookDTO;
 import com.library.entity.Book;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
@@ -10,6 +11,9 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface BookMapper {
     BookDTO toDTO(Book book);
+    // Only Hibernate and the copy statements write the version
+    @Mapping(target = "version", ignore = true)
     Book toEntity(BookDTO bookDTO);
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(BookDTO bookDTO, @MappingTarget Book book);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.library.repository;
+
+// Checkout and return statements on books.available_copies, kept apart so they can spare the second-level cache
+public interface BookCopyRepository {
+    // Checkout takes a copy in one statement: no read-modify-write, so concurrent checkouts of the same title
+    // queue only on the row lock and can never take more copies than there are
+    int takeCopy(Long id);
+
+    int returnCopy(Long id);
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.library.repository;
+
+import com.library.entity.Book;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// A JPQL bulk update makes Hibernate drop the whole books region, so every checkout would empty the cache. These
+// statements declare a query space no entity uses, which leaves the region alone, and evict only the changed book:
+// once right away and again after commit, so a read that re-cached the old row in between is dropped too
+@RequiredArgsConstructor
+class BookCopyRepositoryImpl implements BookCopyRepository {
+
+    private static final String TAKE_COPY = "update books set available_copies = available_copies - 1, " +
+            "version = version + 1 where id = ? and available_copies > 0";
+    private static final String RETURN_COPY = "update books set available_copies = available_copies + 1, " +
+            "version = version + 1 where id = ?";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int takeCopy(Long id) {
+        return updateCopies(TAKE_COPY, id);
+    }
+
+    @Override
+    public int returnCopy(Long id) {
+        return updateCopies(RETURN_COPY, id);
+    }
+
+    private int updateCopies(String sql, Long id) {
+        entityManager.flush();
+        int updated = entityManager.createNativeQuery(sql)
+                .setParameter(1, id)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("")
+                .executeUpdate();
+        if (updated == 0) {
+            return 0;
+        }
+        // A book already loaded in this transaction is re-read, so callers see the new count and version
+        Book book = entityManager.getReference(Book.class, id);
+        if (entityManager.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(book)) {
+            entityManager.refresh(book);
+        }
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+        return updated;
+    }
+
+    private void evict(Long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Book.class, id);
+    }
+}
\ No newline at end of file
@@ -1,13 +1,97 @@
 package com.library.repository;
 
+import com.library.dto.LoanSummary;
 import com.library.entity.Loan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
+    // Responses carry the book and the member, so every entity read joins them in instead of one select per loan
+    @Override
+    @EntityGraph(attributePaths = {"book", "member"})
+    List<Loan> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"book", "member"})
+    Optional<Loan> findById(Long id);
+
+    @EntityGraph(attributePaths = {"book", "member"})
     List<Loan> findByMemberId(Long memberId);
+
+    @EntityGraph(attributePaths = {"book", "member"})
     List<Loan> findByBookId(Long bookId);
+
     List<Loan> findByStatus(Loan.LoanStatus status);
+
+    @EntityGraph(attributePaths = {"book", "member"})
+    List<Loan> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select l from Loan l join fetch l.book join fetch l.member order by l.id")
+    Stream<Loan> streamAll();
+
+    // Column-only reads for ?expand=none; l.book.id and l.member.id read the foreign keys without a join
+    String SELECT_SUMMARY = "select l.id as id, l.book.id as bookId, l.member.id as memberId, " +
+            "l.loanDate as loanDate, l.dueDate as dueDate, l.returnDate as returnDate, l.status as status from Loan l ";
+
+    @Query(SELECT_SUMMARY)
+    List<LoanSummary> findAllSummaries();
+
+    @Query(SELECT_SUMMARY + "where l.id = :id")
+    Optional<LoanSummary> findSummaryById(@Param("id") Long id);
+
+    @Query(SELECT_SUMMARY + "where l.member.id = :memberId")
+    List<LoanSummary> findSummariesByMemberId(@Param("memberId") Long memberId);
+
+    @Query(SELECT_SUMMARY + "where l.book.id = :bookId")
+    List<LoanSummary> findSummariesByBookId(@Param("bookId") Long bookId);
+
+    @Query(SELECT_SUMMARY + "where l.id > :id order by l.id")
+    List<LoanSummary> findSummariesByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_SUMMARY + "order by l.id")
+    Stream<LoanSummary> streamAllSummaries();
+
+    // Export scan over idx_loans_loan_date, foreign keys only; books and members are loaded per chunk
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_SUMMARY + "where l.loanDate >= :from and l.loanDate <= :to " +
+            "and (:status is null or l.status = :status) order by l.loanDate, l.id")
+    Stream<LoanSummary> streamSummariesForExport(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                 @Param("status") Loan.LoanStatus status);
+
+    // Both scans walk idx_loans_status_due_date in (due_date, id) order; the id rides along in the index
+    @Query("select l.id as id, l.dueDate as dueDate from Loan l " +
+            "where l.status = :status and l.dueDate < :today order by l.dueDate, l.id")
+    List<OverdueCandidate> findOverdueCandidates(@Param("status") Loan.LoanStatus status,
+                                                 @Param("today") LocalDate today, Limit limit);
+
+    @Query("select l.id as id, l.dueDate as dueDate from Loan l " +
+            "where l.status = :status and l.dueDate < :today " +
+            "and (l.dueDate > :afterDueDate or (l.dueDate = :afterDueDate and l.id > :afterId)) " +
+            "order by l.dueDate, l.id")
+    List<OverdueCandidate> findOverdueCandidatesAfter(@Param("status") Loan.LoanStatus status,
+                                                      @Param("today") LocalDate today,
+                                                      @Param("afterDueDate") LocalDate afterDueDate,
+                                                      @Param("afterId") Long afterId, Limit limit);
+
+    // Re-checks the status so a loan returned since the scan is left alone
+    @Modifying
+    @Query("update Loan l set l.status = :to where l.id in :ids and l.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") Loan.LoanStatus from,
+                     @Param("to") Loan.LoanStatus to);
 }
\ No newline at end of file
@@ -1,24 +1,35 @@
 package com.library.service;
 
+import com.library.common.web.CursorPage;
 import com.library.dto.BookDTO;
 import com.library.entity.Book;
+import com.library.exception.BusinessException;
 import com.library.exception.DuplicateResourceException;
 import com.library.exception.ResourceNotFoundException;
 import com.library.mapper.BookMapper;
 import com.library.repository.BookRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class BookService {
 
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
+    private final EntityManager entityManager;
 
     public List<BookDTO> getAllBooks() {
         return bookRepository.findAll().stream()
@@ -26,6 +37,39 @@ public class BookService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<BookDTO> getBooksPage(String cursor, int size) {
+        int pageSize = CursorPage.checkSize(size);
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (books.size() > pageSize) {
+            books = books.subList(0, pageSize);
+            nextCursor = CursorPage.encodeCursor(books.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(books.stream().map(bookMapper::toDTO).collect(Collectors.toList()), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<BookDTO> consumer) {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            int count = 0;
+            for (Iterator<Book> it = books.iterator(); it.hasNext(); ) {
+                consumer.accept(bookMapper.toDTO(it.next()));
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    public BookDTO getBookByIsbn(String isbn) {
+        Book book = bookRepository.findByIsbn(isbn)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with isbn: " + isbn));
+        return bookMapper.toDTO(book);
+    }
+
     public BookDTO getBookById(Long id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
@@ -50,6 +94,14 @@ public class BookService {
             throw new DuplicateResourceException("Book with ISBN " + bookDTO.getIsbn() + " already exists");
         }
 
+        // Checkouts move availableCopies under the client's feet, so writing it back needs the version it was read at
+        if (bookDTO.getVersion() != null && !bookDTO.getVersion().equals(existingBook.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Book.class, id);
+        }
+        if (bookDTO.getVersion() == null && !bookDTO.getAvailableCopies().equals(existingBook.getAvailableCopies())) {
+            throw new BusinessException("Changing availableCopies requires the version the book was read at");
+        }
+
         bookMapper.updateEntityFromDTO(bookDTO, existingBook);
         Book updatedBook = bookRepository.save(existingBook);
         return bookMapper.toDTO(updatedBook);
@@ -0,0 +1,48 @@
+package com.library.service;
+
+import com.library.dto.CacheRegionStatsDTO;
+import com.library.dto.CacheStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Reads Hibernate's own counters; they are only collected under the l2-cache profile (generate_statistics)
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheStatsDTO stats() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        boolean cacheEnabled = sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.add(new CacheRegionStatsDTO(regionName, region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), hitRatio(region.getHitCount(), region.getMissCount()),
+                        region.getElementCountInMemory()));
+            }
+        }
+        return new CacheStatsDTO(cacheEnabled, statistics.isStatisticsEnabled(),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(), statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(),
+                statistics.getPrepareStatementCount(), regions);
+    }
+
+    private static Double hitRatio(long hits, long misses) {
+        return hits + misses == 0 ? null : (double) hits / (hits + misses);
+    }
+}
\ No newline at end of file
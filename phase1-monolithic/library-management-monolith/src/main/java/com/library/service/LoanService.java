@@ -1,7 +1,11 @@
 package com.library.service;
 
+import com.library.common.export.LoanExportRow;
+import com.library.common.web.CursorPage;
 import com.library.dto.LoanDTO;
+import com.library.dto.LoanExpand;
 import com.library.dto.LoanResponseDTO;
+import com.library.dto.LoanSummary;
 import com.library.entity.Book;
 import com.library.entity.Loan;
 import com.library.entity.Member;
@@ -11,67 +15,166 @@ import com.library.mapper.LoanMapper;
 import com.library.repository.BookRepository;
 import com.library.repository.LoanRepository;
 import com.library.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class LoanService {
 
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final LoanRepository loanRepository;
     private final BookRepository bookRepository;
     private final MemberRepository memberRepository;
     private final LoanMapper loanMapper;
+    private final EntityManager entityManager;
 
-    public List<LoanResponseDTO> getAllLoans() {
+    public List<LoanResponseDTO> getAllLoans(LoanExpand expand) {
         return loanRepository.findAll().stream()
-                .map(loanMapper::toResponseDTO)
+                .map(loan -> toResponseDTO(loan, expand))
                 .collect(Collectors.toList());
     }
 
-    public LoanResponseDTO getLoanById(Long id) {
+    @Transactional(readOnly = true)
+    public List<LoanSummary> getAllLoanSummaries() {
+        return loanRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<LoanResponseDTO> getLoansPage(String cursor, int size, LoanExpand expand) {
+        int pageSize = CursorPage.checkSize(size);
+        List<Loan> loans = loanRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (loans.size() > pageSize) {
+            loans = loans.subList(0, pageSize);
+            nextCursor = CursorPage.encodeCursor(loans.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(loans.stream().map(loan -> toResponseDTO(loan, expand)).collect(Collectors.toList()),
+                nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<LoanSummary> getLoanSummariesPage(String cursor, int size) {
+        int pageSize = CursorPage.checkSize(size);
+        List<LoanSummary> loans = loanRepository.findSummariesByIdGreaterThan(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (loans.size() > pageSize) {
+            loans = loans.subList(0, pageSize);
+            nextCursor = CursorPage.encodeCursor(loans.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(loans, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllLoans(LoanExpand expand, Consumer<LoanResponseDTO> consumer) {
+        try (Stream<Loan> loans = loanRepository.streamAll()) {
+            int count = 0;
+            for (Iterator<Loan> it = loans.iterator(); it.hasNext(); ) {
+                consumer.accept(toResponseDTO(it.next(), expand));
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    // Projections are not managed entities, so there is nothing to clear while streaming them
+    @Transactional(readOnly = true)
+    public void streamAllLoanSummaries(Consumer<LoanSummary> consumer) {
+        try (Stream<LoanSummary> loans = loanRepository.streamAllSummaries()) {
+            loans.forEach(consumer);
+        }
+    }
+
+    // Reporting export: loan columns come off a server-side cursor, and each chunk loads its books and members
+    // with one IN query apiece instead of a join per row. Clearing after every chunk keeps the context flat.
+    @Transactional(readOnly = true)
+    public void exportLoans(LocalDate from, LocalDate to, Loan.LoanStatus status, Consumer<LoanExportRow> consumer) {
+        try (Stream<LoanSummary> loans = loanRepository.streamSummariesForExport(from, to, status)) {
+            List<LoanSummary> chunk = new ArrayList<>(STREAM_CLEAR_INTERVAL);
+            for (Iterator<LoanSummary> it = loans.iterator(); it.hasNext(); ) {
+                chunk.add(it.next());
+                if (chunk.size() == STREAM_CLEAR_INTERVAL) {
+                    exportChunk(chunk, consumer);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+            exportChunk(chunk, consumer);
+        }
+    }
+
+    public LoanResponseDTO getLoanById(Long id, LoanExpand expand) {
         Loan loan = loanRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + id));
-        return loanMapper.toResponseDTO(loan);
+        return toResponseDTO(loan, expand);
+    }
+
+    @Transactional(readOnly = true)
+    public LoanSummary getLoanSummaryById(Long id) {
+        return loanRepository.findSummaryById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + id));
     }
 
-    public List<LoanResponseDTO> getLoansByMemberId(Long memberId) {
+    public List<LoanResponseDTO> getLoansByMemberId(Long memberId, LoanExpand expand) {
         return loanRepository.findByMemberId(memberId).stream()
-                .map(loanMapper::toResponseDTO)
+                .map(loan -> toResponseDTO(loan, expand))
                 .collect(Collectors.toList());
     }
 
-    public List<LoanResponseDTO> getLoansByBookId(Long bookId) {
+    @Transactional(readOnly = true)
+    public List<LoanSummary> getLoanSummariesByMemberId(Long memberId) {
+        return loanRepository.findSummariesByMemberId(memberId);
+    }
+
+    public List<LoanResponseDTO> getLoansByBookId(Long bookId, LoanExpand expand) {
         return loanRepository.findByBookId(bookId).stream()
-                .map(loanMapper::toResponseDTO)
+                .map(loan -> toResponseDTO(loan, expand))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<LoanSummary> getLoanSummariesByBookId(Long bookId) {
+        return loanRepository.findSummariesByBookId(bookId);
+    }
+
+    // The copy is taken first, with a conditional update, and the row stays locked only for the loan insert
+    // that follows; a failed member check rolls the copy back with the rest of the transaction
     public LoanResponseDTO createLoan(LoanDTO loanDTO) {
-        Book book = bookRepository.findById(loanDTO.getBookId())
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + loanDTO.getBookId()));
+        if (bookRepository.takeCopy(loanDTO.getBookId()) == 0) {
+            Book book = bookRepository.findById(loanDTO.getBookId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + loanDTO.getBookId()));
+            throw new BusinessException("No copies available for book: " + book.getTitle());
+        }
 
         Member member = memberRepository.findById(loanDTO.getMemberId())
                 .orElseThrow(() -> new ResourceNotFoundException("Member not found with id: " + loanDTO.getMemberId()));
 
-        if (book.getAvailableCopies() <= 0) {
-            throw new BusinessException("No copies available for book: " + book.getTitle());
-        }
-
         if (member.getStatus() != Member.MemberStatus.ACTIVE) {
             throw new BusinessException("Member is not active");
         }
 
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        bookRepository.save(book);
-
         Loan loan = loanMapper.toEntity(loanDTO);
-        loan.setBook(book);
+        loan.setBook(bookRepository.getReferenceById(loanDTO.getBookId()));
         loan.setMember(member);
         loan.setStatus(Loan.LoanStatus.ACTIVE);
 
@@ -89,13 +192,11 @@ public class LoanService {
 
         loan.setReturnDate(LocalDate.now());
         loan.setStatus(Loan.LoanStatus.RETURNED);
+        loanRepository.save(loan);
 
-        Book book = loan.getBook();
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        bookRepository.save(book);
-
-        Loan updatedLoan = loanRepository.save(loan);
-        return loanMapper.toResponseDTO(updatedLoan);
+        // Flushes the loan first and re-reads its book, so the response carries the new copy count
+        bookRepository.returnCopy(loan.getBook().getId());
+        return loanMapper.toResponseDTO(loan);
     }
 
     public void deleteLoan(Long id) {
@@ -104,4 +205,36 @@ public class LoanService {
         }
         loanRepository.deleteById(id);
     }
+
+    private void exportChunk(List<LoanSummary> chunk, Consumer<LoanExportRow> consumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<Long> bookIds = chunk.stream().map(LoanSummary::getBookId).collect(Collectors.toSet());
+        Set<Long> memberIds = chunk.stream().map(LoanSummary::getMemberId).collect(Collectors.toSet());
+        Map<Long, Book> books = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        Map<Long, Member> members = memberRepository.findAllById(memberIds).stream()
+                .collect(Collectors.toMap(Member::getId, Function.identity()));
+
+        for (LoanSummary loan : chunk) {
+            Book book = books.get(loan.getBookId());
+            Member member = members.get(loan.getMemberId());
+            consumer.accept(new LoanExportRow(loan.getId(), loan.getLoanDate(), loan.getDueDate(),
+                    loan.getReturnDate(), loan.getStatus().name(),
+                    loan.getBookId(), book.getTitle(), book.getIsbn(), book.getAuthor(),
+                    loan.getMemberId(), member.getFirstName(), member.getLastName(), member.getEmail()));
+        }
+    }
+
+    private LoanResponseDTO toResponseDTO(Loan loan, LoanExpand expand) {
+        LoanResponseDTO response = loanMapper.toResponseDTO(loan);
+        if (!expand.includesBook()) {
+            response.setBook(null);
+        }
+        if (!expand.includesMember()) {
+            response.setMember(null);
+        }
+        return response;
+    }
 }
\ No newline at end of file
@@ -1,24 +1,33 @@
 package com.library.service;
 
+import com.library.common.web.CursorPage;
 import com.library.dto.MemberDTO;
 import com.library.entity.Member;
 import com.library.exception.DuplicateResourceException;
 import com.library.exception.ResourceNotFoundException;
 import com.library.mapper.MemberMapper;
 import com.library.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class MemberService {
 
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final MemberRepository memberRepository;
     private final MemberMapper memberMapper;
+    private final EntityManager entityManager;
 
     public List<MemberDTO> getAllMembers() {
         return memberRepository.findAll().stream()
@@ -26,6 +35,39 @@ public class MemberService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<MemberDTO> getMembersPage(String cursor, int size) {
+        int pageSize = CursorPage.checkSize(size);
+        List<Member> members = memberRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (members.size() > pageSize) {
+            members = members.subList(0, pageSize);
+            nextCursor = CursorPage.encodeCursor(members.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(members.stream().map(memberMapper::toDTO).collect(Collectors.toList()), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllMembers(Consumer<MemberDTO> consumer) {
+        try (Stream<Member> members = memberRepository.streamAll()) {
+            int count = 0;
+            for (Iterator<Member> it = members.iterator(); it.hasNext(); ) {
+                consumer.accept(memberMapper.toDTO(it.next()));
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    public MemberDTO getMemberByEmail(String email) {
+        Member member = memberRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found with email: " + email));
+        return memberMapper.toDTO(member);
+    }
+
     public MemberDTO getMemberById(Long id) {
         Member member = memberRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Member not found with id: " + id));
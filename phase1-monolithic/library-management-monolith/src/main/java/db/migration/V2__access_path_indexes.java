@@ -0,0 +1,19 @@
+package db.migration;
+
+import com.library.common.migration.IndexMigration;
+import org.flywaydb.core.api.migration.Context;
+
+public class V2__access_path_indexes extends IndexMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        // findByMemberId / findByBookId, and the per-member or per-book status checks built on them.
+        // They also serve the foreign keys, so InnoDB can drop its implicit single-column FK indexes.
+        createIndexIfMissing(context, "loans", "idx_loans_member_status", "member_id, status");
+        createIndexIfMissing(context, "loans", "idx_loans_book_status", "book_id, status");
+
+        // findByStatus and the overdue job's keyset scan over (due_date, id). Loan also declares this one as an
+        // entity @Index, so databases that ran with ddl-auto=update already have it.
+        createIndexIfMissing(context, "loans", "idx_loans_status_due_date", "status, due_date");
+    }
+}
\ No newline at end of file
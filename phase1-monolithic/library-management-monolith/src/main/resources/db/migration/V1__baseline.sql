@@ -0,0 +1,53 @@
+-- Tables as Hibernate generated them under ddl-auto=update; "if not exists" adopts existing databases
+create table if not exists books (
+    id bigint not null auto_increment,
+    author varchar(255) not null,
+    available_copies integer not null,
+    isbn varchar(255) not null,
+    published_year integer,
+    publisher varchar(255),
+    title varchar(255) not null,
+    primary key (id),
+    -- existsByIsbn / findByIsbn
+    constraint uk_books_isbn unique (isbn)
+) engine=InnoDB;
+
+create table if not exists members (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    membership_date date not null,
+    phone varchar(255),
+    status enum ('ACTIVE','INACTIVE','SUSPENDED'),
+    primary key (id),
+    -- existsByEmail / findByEmail
+    constraint uk_members_email unique (email)
+) engine=InnoDB;
+
+create table if not exists loans (
+    id bigint not null auto_increment,
+    book_id bigint not null,
+    due_date date not null,
+    loan_date date not null,
+    member_id bigint not null,
+    return_date date,
+    status enum ('ACTIVE','RETURNED','OVERDUE'),
+    primary key (id),
+    constraint fk_loans_book foreign key (book_id) references books (id),
+    constraint fk_loans_member foreign key (member_id) references members (id)
+) engine=InnoDB;
+
+create table if not exists scheduled_jobs (
+    name varchar(64) not null,
+    checkpoint_due_date date,
+    checkpoint_id bigint,
+    last_run_duration_ms bigint,
+    last_run_finished_at datetime(6),
+    last_run_scanned bigint,
+    last_run_started_at datetime(6),
+    last_run_updated bigint,
+    locked_by varchar(255),
+    locked_until datetime(6),
+    primary key (name)
+) engine=InnoDB;
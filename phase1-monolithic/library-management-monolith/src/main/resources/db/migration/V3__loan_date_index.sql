@@ -0,0 +1,2 @@
+-- Loan export by loan date range; InnoDB appends the id, so the scan also comes out in (loan_date, id) order
+create index idx_loans_loan_date on loans (loan_date);
@@ -0,0 +1,2 @@
+-- Optimistic lock column for Book; existing rows start at version 0
+alter table books add column version bigint not null default 0;
@@ -0,0 +1,71 @@
+package com.library.repository;
+
+import com.library.dto.LoanDTO;
+import com.library.entity.Book;
+import com.library.service.BookService;
+import com.library.service.LoanService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A checkout or return evicts its own book from the second-level cache and leaves every other book cached
+@SpringBootTest
+@ActiveProfiles({"test", "l2-cache"})
+class BookCopyCacheTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+
+    @BeforeEach
+    void createBooks() {
+        jdbcTemplate.update("delete from loans where book_id in (811, 812)");
+        jdbcTemplate.update("merge into books (id, title, isbn, author, available_copies, version) key (id) " +
+                "values (811, 'Designing Data-Intensive Applications', '978-1449373320', 'Martin Kleppmann', 3, 0)");
+        jdbcTemplate.update("merge into books (id, title, isbn, author, available_copies, version) key (id) " +
+                "values (812, 'Database Internals', '978-1492040347', 'Alex Petrov', 3, 0)");
+        jdbcTemplate.update("merge into members (id, first_name, last_name, email, membership_date, status) key (id) " +
+                "values (811, 'Jim', 'Gray', 'jim@example.com', date '2024-01-01', 'ACTIVE')");
+        cache = entityManagerFactory.getCache();
+        cache.evictAll();
+        bookService.getBookById(811L);
+        bookService.getBookById(812L);
+    }
+
+    @Test
+    void checkoutAndReturnEvictOnlyTheirBook() {
+        assertThat(cache.contains(Book.class, 811L)).isTrue();
+        assertThat(cache.contains(Book.class, 812L)).isTrue();
+
+        Long loanId = loanService.createLoan(new LoanDTO(null, 811L, 811L, LocalDate.now(),
+                LocalDate.now().plusDays(14), null, null)).getId();
+
+        assertThat(cache.contains(Book.class, 811L)).isFalse();
+        assertThat(cache.contains(Book.class, 812L)).isTrue();
+        assertThat(bookService.getBookById(811L).getAvailableCopies()).isEqualTo(2);
+
+        assertThat(loanService.returnBook(loanId).getBook().getAvailableCopies()).isEqualTo(3);
+
+        assertThat(cache.contains(Book.class, 811L)).isFalse();
+        assertThat(cache.contains(Book.class, 812L)).isTrue();
+        assertThat(bookService.getBookById(811L).getAvailableCopies()).isEqualTo(3);
+    }
+}
\ No newline at end of file
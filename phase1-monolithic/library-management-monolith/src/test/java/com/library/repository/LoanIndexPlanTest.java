@@ -0,0 +1,43 @@
+package com.library.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the migrations and checks that the loan access paths are planned on the V2 indexes
+@JdbcTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LoanIndexPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loansByMemberUseMemberStatusIndex() {
+        assertThat(plan("select id from loans where member_id = 1 and status = 'ACTIVE'"))
+                .contains("idx_loans_member_status");
+    }
+
+    @Test
+    void loansByBookUseBookStatusIndex() {
+        assertThat(plan("select id from loans where book_id = 1 and status = 'ACTIVE'"))
+                .contains("idx_loans_book_status");
+    }
+
+    @Test
+    void overdueScanUsesStatusDueDateIndex() {
+        assertThat(plan("select id, due_date from loans where status = 'ACTIVE' and due_date < date '2024-01-01' "
+                + "order by due_date, id"))
+                .contains("idx_loans_status_due_date");
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+    }
+}
\ No newline at end of file
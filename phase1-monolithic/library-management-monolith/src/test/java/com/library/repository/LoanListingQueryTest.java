@@ -0,0 +1,93 @@
+package com.library.repository;
+
+import com.library.dto.LoanExpand;
+import com.library.dto.LoanResponseDTO;
+import com.library.service.LoanService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every entity listing embeds books and members; each must stay one statement however many loans it returns
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class LoanListingQueryTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void createLoans() {
+        jdbcTemplate.update("delete from loans");
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.update("merge into books (id, title, isbn, author, available_copies) key (id) " +
+                    "values (?, ?, ?, 'Listing Author', 10)", 700 + i, "Listing Book " + i, "978-70000000" + i);
+            jdbcTemplate.update("merge into members (id, first_name, last_name, email, membership_date, status) " +
+                    "key (id) values (?, 'Lister', ?, ?, date '2024-01-01', 'ACTIVE')",
+                    700 + i, "No" + i, "lister" + i + "@example.com");
+        }
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 9; i++) {
+            jdbcTemplate.update("insert into loans (book_id, member_id, loan_date, due_date, status) " +
+                    "values (?, ?, ?, ?, 'ACTIVE')", 701 + i % 3, 701 + i / 3, today, today.plusDays(14));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listsAllLoansWithOneQuery() {
+        List<LoanResponseDTO> loans = loanService.getAllLoans(LoanExpand.ALL);
+
+        assertThat(loans).hasSize(9).allSatisfy(loan -> {
+            assertThat(loan.getBook().getTitle()).startsWith("Listing Book");
+            assertThat(loan.getMember().getFirstName()).isEqualTo("Lister");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listsLoansOfAMemberOrABookWithOneQueryEach() {
+        assertThat(loanService.getLoansByMemberId(701L, LoanExpand.ALL)).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(loanService.getLoansByBookId(702L, LoanExpand.ALL)).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pagesAndStreamsLoansWithOneQueryEach() {
+        assertThat(loanService.getLoansPage(null, 5, LoanExpand.ALL).getContent()).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        List<LoanResponseDTO> streamed = new ArrayList<>();
+        loanService.streamAllLoans(LoanExpand.ALL, streamed::add);
+        assertThat(streamed).hasSize(9).allMatch(loan -> loan.getBook() != null && loan.getMember() != null);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        Long id = streamed.get(0).getId();
+        assertThat(loanService.getLoanById(id, LoanExpand.ALL).getBook()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.library.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "library.overdue-job.chunk-size=3")
+@ActiveProfiles("test")
+class OverdueLoanJobTest {
+
+    @Autowired
+    private OverdueLoanJob overdueLoanJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void createLoans() {
+        jdbcTemplate.update("delete from loans");
+        jdbcTemplate.update("delete from scheduled_jobs");
+        jdbcTemplate.update("merge into books (id, title, isbn, author, available_copies) key (id) " +
+                "values (1, 'Refactoring', '978-0134757599', 'Martin Fowler', 10)");
+        jdbcTemplate.update("merge into members (id, first_name, last_name, email, membership_date, status) key (id) " +
+                "values (1, 'Ada', 'Lovelace', 'ada@example.com', date '2024-01-01', 'ACTIVE')");
+        LocalDate today = LocalDate.now();
+        for (int i = 1; i <= 7; i++) {
+            insertLoan(today.minusDays(i), "ACTIVE");
+        }
+        insertLoan(today.plusDays(3), "ACTIVE");
+        insertLoan(today.minusDays(2), "RETURNED");
+    }
+
+    @Test
+    void marksLoansPastTheirDueDateOverdueAndPublishesTheRun() {
+        double scannedBefore = meterRegistry.get("library.job.rows.scanned").tag("job", "overdue-loans").counter().count();
+
+        overdueLoanJob.run();
+
+        assertThat(countByStatus("OVERDUE")).isEqualTo(7);
+        assertThat(countByStatus("ACTIVE")).isEqualTo(1);
+        assertThat(countByStatus("RETURNED")).isEqualTo(1);
+        assertThat(meterRegistry.get("library.job.rows.scanned").tag("job", "overdue-loans").counter().count())
+                .isEqualTo(scannedBefore + 7);
+        assertThat(meterRegistry.get("library.job.runs").tags("job", "overdue-loans", "outcome", "completed")
+                .timer().count()).isPositive();
+        assertThat(jdbcTemplate.queryForObject("select locked_by from scheduled_jobs where name = 'overdue-loans'",
+                String.class)).isNull();
+    }
+
+    private void insertLoan(LocalDate dueDate, String status) {
+        jdbcTemplate.update("insert into loans (book_id, member_id, loan_date, due_date, status) values (1, 1, ?, ?, ?)",
+                dueDate.minusDays(14), dueDate, status);
+    }
+
+    private int countByStatus(String status) {
+        return jdbcTemplate.queryForObject("select count(*) from loans where status = ?", Integer.class, status);
+    }
+}
\ No newline at end of file
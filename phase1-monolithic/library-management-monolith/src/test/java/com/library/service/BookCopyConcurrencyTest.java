@@ -0,0 +1,105 @@
+package com.library.service;
+
+import com.library.dto.BookDTO;
+import com.library.dto.LoanDTO;
+import com.library.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookCopyConcurrencyTest {
+
+    private static final long BOOK_ID = 801;
+    private static final long MEMBER_ID = 801;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createBook() {
+        jdbcTemplate.update("delete from loans where book_id = ?", BOOK_ID);
+        jdbcTemplate.update("merge into books (id, title, isbn, author, available_copies, version) key (id) " +
+                "values (?, 'Concurrency in Practice', '978-0321349606', 'Brian Goetz', 5, 0)", BOOK_ID);
+        jdbcTemplate.update("merge into members (id, first_name, last_name, email, membership_date, status) key (id) " +
+                "values (?, 'Doug', 'Lea', 'doug@example.com', date '2024-01-01', 'ACTIVE')", MEMBER_ID);
+    }
+
+    @Test
+    void concurrentCheckoutsNeverTakeMoreCopiesThanThereAre() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> checkouts = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            checkouts.add(pool.submit(() -> {
+                start.await();
+                try {
+                    loanService.createLoan(new LoanDTO(null, BOOK_ID, MEMBER_ID, LocalDate.now(),
+                            LocalDate.now().plusDays(14), null, null));
+                    return true;
+                } catch (BusinessException ex) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> checkout : checkouts) {
+            if (checkout.get(30, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        pool.shutdown();
+
+        assertThat(succeeded).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from loans where book_id = ?", Integer.class, BOOK_ID))
+                .isEqualTo(5);
+        BookDTO book = bookService.getBookById(BOOK_ID);
+        assertThat(book.getAvailableCopies()).isZero();
+        assertThat(book.getVersion()).isEqualTo(5);
+    }
+
+    @Test
+    void anEditReadBeforeACheckoutCannotRestoreTheOldCount() {
+        BookDTO edit = bookService.getBookById(BOOK_ID);
+        loanService.createLoan(new LoanDTO(null, BOOK_ID, MEMBER_ID, LocalDate.now(), LocalDate.now().plusDays(14),
+                null, null));
+
+        edit.setTitle("Java Concurrency in Practice");
+        assertThatThrownBy(() -> bookService.updateBook(BOOK_ID, edit))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        // Without a version the count can only be sent back unchanged
+        edit.setVersion(null);
+        assertThatThrownBy(() -> bookService.updateBook(BOOK_ID, edit)).isInstanceOf(BusinessException.class);
+        edit.setAvailableCopies(4);
+        assertThat(bookService.updateBook(BOOK_ID, edit).getTitle()).isEqualTo("Java Concurrency in Practice");
+
+        BookDTO current = bookService.getBookById(BOOK_ID);
+        current.setAvailableCopies(7);
+        assertThat(bookService.updateBook(BOOK_ID, current).getAvailableCopies()).isEqualTo(7);
+    }
+}
\ No newline at end of file
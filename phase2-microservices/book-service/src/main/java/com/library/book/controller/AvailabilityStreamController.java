@@ -0,0 +1,47 @@
+package com.library.book.controller;
+
+import com.library.book.dto.AvailabilityStreamStatsDTO;
+import com.library.book.event.BookChangeFeed;
+import com.library.book.exception.BusinessException;
+import com.library.book.service.BookService;
+import com.library.book.stream.AvailabilityHub;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/books/availability")
+@RequiredArgsConstructor
+public class AvailabilityStreamController {
+
+    private static final int MAX_WATCHED_BOOKS = 500;
+
+    private final BookService bookService;
+    private final AvailabilityHub availabilityHub;
+    private final BookChangeFeed bookChangeFeed;
+
+    // Server-sent "availability" events, each a JSON array of {bookId, availableCopies}. With ?ids=1,2,3 only those
+    // books are sent, starting with their current counts; without it every change is. The hub writes the response
+    // without blocking, so it takes the request over rather than returning an emitter.
+    @GetMapping("/stream")
+    public void stream(@RequestParam(required = false) List<Long> ids, HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        if (ids == null) {
+            availabilityHub.subscribe(null, List::of, request, response);
+            return;
+        }
+        if (ids.isEmpty() || ids.size() > MAX_WATCHED_BOOKS) {
+            throw new BusinessException("Watch between 1 and " + MAX_WATCHED_BOOKS + " books, or omit ids for all");
+        }
+        availabilityHub.subscribe(ids, () -> bookService.getInventory(ids), request, response);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<AvailabilityStreamStatsDTO> getStats() {
+        return ResponseEntity.ok(bookChangeFeed.stats());
+    }
+}
\ No newline at end of file
@@ -1,12 +1,24 @@
 package com.library.book.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.book.dto.BatchReservationDTO;
 import com.library.book.dto.BookDTO;
+import com.library.book.dto.BookSearchResultDTO;
+import com.library.book.dto.CopyReservationDTO;
+import com.library.book.dto.ImportReportDTO;
+import com.library.book.dto.InventoryDTO;
+import com.library.book.service.BookImportService;
 import com.library.book.service.BookService;
+import com.library.common.web.CursorPage;
+import com.library.common.web.NdjsonResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -15,12 +27,36 @@ import java.util.List;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public ResponseEntity<List<BookDTO>> getAllBooks() {
+    public ResponseEntity<List<BookDTO>> getAllBooks(@RequestParam(required = false) List<Long> ids) {
+        if (ids != null) {
+            return ResponseEntity.ok(bookService.getBooksByIds(ids));
+        }
         return ResponseEntity.ok(bookService.getAllBooks());
     }
 
+    @GetMapping(params = "size")
+    public ResponseEntity<CursorPage<BookDTO>> getBooksPage(@RequestParam(required = false) String cursor,
+                                                            @RequestParam int size) {
+        return ResponseEntity.ok(bookService.getBooksPage(cursor, size));
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        return NdjsonResponses.stream(objectMapper, bookService::streamAllBooks);
+    }
+
+    // Ranked full-text search over title, author and publisher; every word of q must match
+    @GetMapping("/search")
+    public ResponseEntity<BookSearchResultDTO> searchBooks(@RequestParam String q,
+                                                           @RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookService.searchBooks(q, page, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookDTO> getBookById(@PathVariable Long id) {
         return ResponseEntity.ok(bookService.getBookById(id));
@@ -31,11 +67,52 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(bookService.createBook(bookDTO));
     }
 
+    // Bulk load: the body is read as it arrives, so files of any size can be posted in one request
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReportDTO> importCsv(InputStream body) {
+        return ResponseEntity.ok(bookImportService.importBooks(body, BookImportService.Format.CSV));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReportDTO> importNdjson(InputStream body) {
+        return ResponseEntity.ok(bookImportService.importBooks(body, BookImportService.Format.NDJSON));
+    }
+
+    // Progress of the running import, or the report of the last one
+    @GetMapping("/import")
+    public ResponseEntity<ImportReportDTO> getImportProgress() {
+        return ResponseEntity.ok(bookImportService.getProgress());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<BookDTO> updateBook(@PathVariable Long id, @Valid @RequestBody BookDTO bookDTO) {
         return ResponseEntity.ok(bookService.updateBook(id, bookDTO));
     }
 
+    // With a token, retries of either call take or credit the copy only once
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<InventoryDTO> reserveCopy(@PathVariable Long id,
+                                                    @RequestParam(required = false) String token) {
+        return ResponseEntity.ok(bookService.reserveCopy(id, token));
+    }
+
+    @PostMapping("/{id}/release")
+    public ResponseEntity<InventoryDTO> releaseCopy(@PathVariable Long id,
+                                                    @RequestParam(required = false) String token) {
+        return ResponseEntity.ok(bookService.releaseCopy(id, token));
+    }
+
+    // One call for a whole cart: a book listed twice takes two copies; answers 409 with per-book details
+    @PostMapping("/reserve")
+    public ResponseEntity<BatchReservationDTO> reserveCopies(@RequestBody List<CopyReservationDTO> copies) {
+        return ResponseEntity.ok(bookService.reserveCopies(copies));
+    }
+
+    @PostMapping("/release")
+    public ResponseEntity<List<InventoryDTO>> releaseCopies(@RequestBody List<CopyReservationDTO> copies) {
+        return ResponseEntity.ok(bookService.releaseCopies(copies));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
         bookService.deleteBook(id);
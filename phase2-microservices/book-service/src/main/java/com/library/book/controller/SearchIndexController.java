@@ -0,0 +1,27 @@
+package com.library.book.controller;
+
+import com.library.book.dto.SearchIndexStatsDTO;
+import com.library.book.search.BookSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/books/search")
+@RequiredArgsConstructor
+public class SearchIndexController {
+
+    private final BookSearchIndex bookSearchIndex;
+
+    @GetMapping("/stats")
+    public ResponseEntity<SearchIndexStatsDTO> getSearchIndexStats() {
+        return ResponseEntity.ok(bookSearchIndex.stats());
+    }
+
+    // Reloads the index from the database now instead of waiting for library.search.rebuild-interval
+    @PostMapping("/rebuild")
+    public ResponseEntity<SearchIndexStatsDTO> rebuildSearchIndex() {
+        bookSearchIndex.rebuild();
+        return ResponseEntity.ok(bookSearchIndex.stats());
+    }
+}
\ No newline at end of file
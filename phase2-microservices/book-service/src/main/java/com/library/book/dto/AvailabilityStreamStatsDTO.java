@@ -0,0 +1,20 @@
+package com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityStreamStatsDTO {
+    private int subscribers;
+    private int subscribersOfAllBooks;
+    private int watchedBooks;
+    private Long lastEventId;
+    private int pendingGaps;
+    private long changesReceived;
+    private long messagesSent;
+    // Subscribers disconnected because their buffer overflowed
+    private long droppedSubscribers;
+}
\ No newline at end of file
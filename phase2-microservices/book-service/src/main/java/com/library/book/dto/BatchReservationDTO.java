@@ -0,0 +1,14 @@
+package com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationDTO {
+    private boolean reserved;
+    private List<ReservationItemDTO> items;
+}
\ No newline at end of file
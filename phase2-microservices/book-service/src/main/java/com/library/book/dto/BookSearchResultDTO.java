@@ -0,0 +1,18 @@
+package com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchResultDTO {
+    private String query;
+    private int page;
+    private int size;
+    private long totalHits;
+    // Best match first
+    private List<BookDTO> books;
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One copy in a batch reserve or release; the token makes retries of the batch take or credit it only once
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CopyReservationDTO {
+    private Long bookId;
+    private String token;
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+    // Line of the input the row started on, header included
+    private long line;
+    private String isbn;
+    private String message;
+}
\ No newline at end of file
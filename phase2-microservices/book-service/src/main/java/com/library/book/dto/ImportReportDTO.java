@@ -0,0 +1,24 @@
+package com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+    private boolean running;
+    private String format;
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private long chunks;
+    // Only the first rejected rows are kept, so a bad file cannot grow the report without bound
+    private List<ImportErrorDTO> errors;
+    private boolean errorsTruncated;
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationItemDTO {
+    private Long bookId;
+    private Integer requestedCopies;
+    // RESERVED on success; AVAILABLE, UNAVAILABLE or NOT_FOUND when the batch was rolled back
+    private String status;
+    private Integer availableCopies;
+}
\ No newline at end of file
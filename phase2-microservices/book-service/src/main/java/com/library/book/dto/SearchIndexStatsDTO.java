@@ -0,0 +1,20 @@
+package com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexStatsDTO {
+    private boolean ready;
+    private int documents;
+    private int terms;
+    private long postings;
+    private LocalDateTime lastRebuildAt;
+    private long lastRebuildMs;
+    private long searches;
+    private long totalSearchMicros;
+}
\ No newline at end of file
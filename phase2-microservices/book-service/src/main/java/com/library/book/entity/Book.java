@@ -30,4 +30,8 @@ public class Book {
 
     @Column(nullable = false)
     private Integer availableCopies;
+
+    // Copies the library owns; releases never raise availableCopies above it. Null for books created before
+    // it was tracked.
+    private Integer totalCopies;
 }
\ No newline at end of file
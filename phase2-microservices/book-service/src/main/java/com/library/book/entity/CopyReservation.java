@@ -0,0 +1,36 @@
+package com.library.book.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// A copy taken out of availableCopies under the token the caller chose, so reserve and release can be retried.
+// RELEASED rows are kept: they stop a repeated release from crediting twice and a late reserve from taking a copy.
+@Entity
+@Table(name = "copy_reservations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CopyReservation {
+    @Id
+    @Column(length = 36)
+    private String token;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime releasedAt;
+
+    public enum Status {
+        RESERVED, RELEASED
+    }
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.library.book.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.book.dto.AvailabilityStreamStatsDTO;
+import com.library.book.dto.BookDTO;
+import com.library.book.dto.InventoryDTO;
+import com.library.book.search.BookSearchIndex;
+import com.library.book.stream.AvailabilityHub;
+import com.library.common.outbox.ChangeEventType;
+import com.library.common.outbox.OutboxEvent;
+import com.library.common.outbox.OutboxStore;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Tails outbox_events, which records every book change made on any replica, and hands the changes to this node's
+// search index and AvailabilityHub. Each node keeps its own position, so neither depends on the outbox relay.
+// Ids are taken before commit, so an id below the highest one seen can still show up later: such gaps are re-read
+// on every poll until they appear or gap-timeout passes, after which they are taken to be rolled back.
+@Slf4j
+@Component
+public class BookChangeFeed {
+
+    // Beyond this many missing ids (a rolled-back import chunk, say) the rest are not waited for
+    private static final int MAX_TRACKED_GAPS = 1000;
+
+    private final OutboxStore outboxStore;
+    private final BookSearchIndex bookSearchIndex;
+    private final AvailabilityHub availabilityHub;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long gapTimeoutNanos;
+
+    // Only touched by the scheduler thread, once started
+    private long lastEventId;
+    private final Map<Long, Long> gapsSeenAt = new LinkedHashMap<>();
+    private volatile long lastEventIdSeen;
+    private volatile int pendingGaps;
+
+    public BookChangeFeed(OutboxStore outboxStore,
+                          BookSearchIndex bookSearchIndex,
+                          AvailabilityHub availabilityHub,
+                          ObjectMapper objectMapper,
+                          @Value("${library.change-feed.batch-size:500}") int batchSize,
+                          @Value("${library.change-feed.gap-timeout:10s}") Duration gapTimeout) {
+        this.outboxStore = outboxStore;
+        this.bookSearchIndex = bookSearchIndex;
+        this.availabilityHub = availabilityHub;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+    }
+
+    // Before the search index's first build reads the table, so every change it misses is still ahead of the feed
+    @PostConstruct
+    void start() {
+        lastEventId = outboxStore.findMaxId().orElse(0L);
+        record();
+    }
+
+    @Scheduled(fixedDelayString = "${library.change-feed.poll-interval:500ms}")
+    public void poll() {
+        List<OutboxEvent> events = new ArrayList<>();
+        if (!gapsSeenAt.isEmpty()) {
+            for (OutboxEvent event : outboxStore.findAllById(gapsSeenAt.keySet())) {
+                gapsSeenAt.remove(event.getId());
+                events.add(event);
+            }
+            long now = System.nanoTime();
+            gapsSeenAt.values().removeIf(seenAt -> now - seenAt > gapTimeoutNanos);
+        }
+
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxStore.findAfter(lastEventId, batchSize);
+            long now = System.nanoTime();
+            for (OutboxEvent event : batch) {
+                for (long missing = lastEventId + 1; missing < event.getId()
+                        && gapsSeenAt.size() < MAX_TRACKED_GAPS; missing++) {
+                    gapsSeenAt.put(missing, now);
+                }
+                lastEventId = event.getId();
+                events.add(event);
+            }
+        } while (batch.size() == batchSize);
+
+        // A late gap event is still the newest of its book (writers lock the book row first), but must go out in
+        // id order with the rest of the poll
+        events.sort(Comparator.comparing(OutboxEvent::getId));
+        Map<Long, BookDTO> searchChanges = new LinkedHashMap<>();
+        List<InventoryDTO> inventoryChanges = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            JsonNode payload = readPayload(event);
+            // Inventory changes leave the searched fields alone
+            if (event.getEventType() == ChangeEventType.DELETED) {
+                searchChanges.put(event.getAggregateId(), null);
+            } else if (event.getEventType() != ChangeEventType.INVENTORY_CHANGED && payload != null) {
+                searchChanges.put(event.getAggregateId(), objectMapper.convertValue(payload, BookDTO.class));
+            }
+            InventoryDTO change = toInventory(event, payload);
+            if (change != null) {
+                inventoryChanges.add(change);
+            }
+        }
+        if (!searchChanges.isEmpty()) {
+            bookSearchIndex.applyAll(searchChanges);
+        }
+        if (!inventoryChanges.isEmpty() && availabilityHub.hasSubscribers()) {
+            availabilityHub.publish(inventoryChanges);
+        }
+        record();
+    }
+
+    public AvailabilityStreamStatsDTO stats() {
+        return availabilityHub.stats(lastEventIdSeen, pendingGaps);
+    }
+
+    private void record() {
+        lastEventIdSeen = lastEventId;
+        pendingGaps = gapsSeenAt.size();
+    }
+
+    // Every payload but DELETED carries the book's count after the change; a deleted book has none left
+    private static InventoryDTO toInventory(OutboxEvent event, JsonNode payload) {
+        if (event.getEventType() == ChangeEventType.DELETED) {
+            return new InventoryDTO(event.getAggregateId(), 0);
+        }
+        JsonNode copies = payload == null ? null : payload.get("availableCopies");
+        return copies == null || copies.isNull() ? null : new InventoryDTO(event.getAggregateId(), copies.asInt());
+    }
+
+    private JsonNode readPayload(OutboxEvent event) {
+        if (event.getPayload() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException ex) {
+            log.warn("Skipping unreadable payload of outbox event {}: {}", event.getId(), ex.getMessage());
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.library.book.exception;
+
+public class BusinessException extends RuntimeException {
+    public BusinessException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
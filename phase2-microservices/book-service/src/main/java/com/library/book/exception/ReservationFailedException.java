@@ -0,0 +1,17 @@
+package com.library.book.exception;
+
+import com.library.book.dto.BatchReservationDTO;
+
+// Thrown to roll back a batch reservation; carries the per-book outcome for the response
+public class ReservationFailedException extends RuntimeException {
+    private final BatchReservationDTO reservation;
+
+    public ReservationFailedException(BatchReservationDTO reservation) {
+        super("Not every requested book has a copy available");
+        this.reservation = reservation;
+    }
+
+    public BatchReservationDTO getReservation() {
+        return reservation;
+    }
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.library.book.mapper;
 import com.library.book.dto.BookDTO;
 import com.library.book.entity.Book;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
@@ -10,6 +11,10 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
 public interface BookMapper {
     BookDTO toDTO(Book book);
+    @Mapping(target = "totalCopies", source = "availableCopies")
     Book toEntity(BookDTO bookDTO);
+
+    // totalCopies follows availableCopies in BookService.updateBook
+    @Mapping(target = "totalCopies", ignore = true)
     void updateEntityFromDTO(BookDTO bookDTO, @MappingTarget Book book);
 }
\ No newline at end of file
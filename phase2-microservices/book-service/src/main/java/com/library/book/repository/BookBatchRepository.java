@@ -0,0 +1,62 @@
+package com.library.book.repository;
+
+import com.library.book.entity.Book;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+// JDBC batch inserts for catalog imports. Hibernate cannot batch IDENTITY inserts, so these bypass it;
+// they run on the connection of the surrounding transaction. With rewriteBatchedStatements=true the driver
+// sends each batch as one multi-row insert and still hands back every generated id.
+@Repository
+@RequiredArgsConstructor
+public class BookBatchRepository {
+
+    private static final String INSERT_BOOK = "insert into books (title, isbn, author, publisher, published_year, " +
+            "available_copies, total_copies) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Sets the generated ids on the books, in insert order
+    public void insertBooks(List<Book> books) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_BOOK, Statement.RETURN_GENERATED_KEYS)) {
+                for (Book book : books) {
+                    insert.setString(1, book.getTitle());
+                    insert.setString(2, book.getIsbn());
+                    insert.setString(3, book.getAuthor());
+                    insert.setString(4, book.getPublisher());
+                    setInteger(insert, 5, book.getPublishedYear());
+                    insert.setInt(6, book.getAvailableCopies());
+                    insert.setInt(7, book.getAvailableCopies());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    for (Book book : books) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Driver returned fewer ids than books inserted");
+                        }
+                        book.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void setInteger(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
+        }
+    }
+}
\ No newline at end of file
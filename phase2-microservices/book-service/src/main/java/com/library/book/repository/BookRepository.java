@@ -1,12 +1,57 @@
 package com.library.book.repository;
 
 import com.library.book.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
     Optional<Book> findByIsbn(String isbn);
     boolean existsByIsbn(String isbn);
-}
\ No newline at end of file
+
+    // Duplicate check for a whole import chunk in one query
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from Book b order by b.id")
+    Stream<Book> streamAll();
+
+    // Feeds the search index rebuild without loading managed entities; in id order, so postings are appended
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select b.id as id, b.title as title, b.author as author, b.publisher as publisher from Book b " +
+            "order by b.id")
+    Stream<BookSearchFields> streamSearchFields();
+
+    // Conditional decrement: the WHERE clause makes concurrent checkouts unable to oversell
+    @Modifying(clearAutomatically = true)
+    @Query("update Book b set b.availableCopies = b.availableCopies - 1 where b.id = :id and b.availableCopies > 0")
+    int reserveCopy(@Param("id") Long id);
+
+    // Capped at totalCopies, so a compensation delivered twice cannot create a copy
+    @Modifying(clearAutomatically = true)
+    @Query("update Book b set b.availableCopies = b.availableCopies + 1 where b.id = :id " +
+            "and (b.totalCopies is null or b.availableCopies < b.totalCopies)")
+    int releaseCopy(@Param("id") Long id);
+
+    // Batch variant takes several copies of one book at once
+    @Modifying(clearAutomatically = true)
+    @Query("update Book b set b.availableCopies = b.availableCopies - :count where b.id = :id and b.availableCopies >= :count")
+    int reserveCopies(@Param("id") Long id, @Param("count") int count);
+
+    @Query("select b.availableCopies from Book b where b.id = :id")
+    Optional<Integer> findAvailableCopiesById(@Param("id") Long id);
+}
@@ -0,0 +1,9 @@
+package com.library.book.repository;
+
+// Spring Data projection with the columns the search index covers
+public interface BookSearchFields {
+    Long getId();
+    String getTitle();
+    String getAuthor();
+    String getPublisher();
+}
\ No newline at end of file
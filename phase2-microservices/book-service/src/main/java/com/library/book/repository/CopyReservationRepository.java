@@ -0,0 +1,32 @@
+package com.library.book.repository;
+
+import com.library.book.entity.CopyReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface CopyReservationRepository extends JpaRepository<CopyReservation, String> {
+
+    // 0 when the token is already known; a concurrent insert of the same token waits on the key and then skips
+    @Modifying
+    @Query(value = "insert ignore into copy_reservations (token, book_id, status, created_at) " +
+            "values (:token, :bookId, 'RESERVED', :now)", nativeQuery = true)
+    int insertReserved(@Param("token") String token, @Param("bookId") Long bookId, @Param("now") LocalDateTime now);
+
+    // Tombstone for a release that arrived before its reserve, or without one
+    @Modifying
+    @Query(value = "insert ignore into copy_reservations (token, book_id, status, created_at, released_at) " +
+            "values (:token, :bookId, 'RELEASED', :now, :now)", nativeQuery = true)
+    int insertReleased(@Param("token") String token, @Param("bookId") Long bookId, @Param("now") LocalDateTime now);
+
+    // Only the first release of a reservation matches
+    @Modifying(clearAutomatically = true)
+    @Query("update CopyReservation r set r.status = com.library.book.entity.CopyReservation.Status.RELEASED, " +
+            "r.releasedAt = :now where r.token = :token and r.bookId = :bookId " +
+            "and r.status = com.library.book.entity.CopyReservation.Status.RESERVED")
+    int release(@Param("token") String token, @Param("bookId") Long bookId, @Param("now") LocalDateTime now);
+}
\ No newline at end of file
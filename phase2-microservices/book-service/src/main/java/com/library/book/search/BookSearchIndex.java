@@ -0,0 +1,292 @@
+package com.library.book.search;
+
+import com.library.book.dto.BookDTO;
+import com.library.book.dto.SearchIndexStatsDTO;
+import com.library.book.exception.ServiceUnavailableException;
+import com.library.book.repository.BookRepository;
+import com.library.book.repository.BookSearchFields;
+import com.library.common.search.RebuildableIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// In-process inverted index over title, author and publisher. Every query term must match; hits are ranked
+// with BM25 on field-weighted term counts. Built from the database at startup; writes on this instance are applied
+// once they commit, and BookChangeFeed applies the outbox events of every replica. The periodic rebuild only
+// repairs what the feed gave up on, such as events it took to be rolled back.
+@Component
+public class BookSearchIndex extends RebuildableIndex<BookSearchIndex.Index> {
+
+    // A title match outweighs an author match, which outweighs a publisher match
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float AUTHOR_WEIGHT = 2f;
+    private static final float PUBLISHER_WEIGHT = 1f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final BookRepository bookRepository;
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder totalSearchMicros = new LongAdder();
+
+    public BookSearchIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        super("Search index", transactionManager, new Index());
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${library.search.rebuild-interval:1h}",
+            fixedDelayString = "${library.search.rebuild-interval:1h}")
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    @Override
+    protected Index load() {
+        Index fresh = new Index();
+        try (Stream<BookSearchFields> books = bookRepository.streamSearchFields()) {
+            books.forEach(book -> fresh.add(book.getId(), book.getTitle(), book.getAuthor(), book.getPublisher()));
+        }
+        return fresh;
+    }
+
+    @Override
+    protected String describe(Index index) {
+        return index.docs.size() + " books, " + index.postings.size() + " terms";
+    }
+
+    public void indexAfterCommit(BookDTO book) {
+        applyAfterCommit(index -> index.add(book.getId(), book.getTitle(), book.getAuthor(), book.getPublisher()));
+    }
+
+    public void removeAfterCommit(Long id) {
+        applyAfterCommit(index -> index.remove(id));
+    }
+
+    // Books changed on any replica, from the outbox; a null value is a deleted book
+    public void applyAll(Map<Long, BookDTO> changes) {
+        apply(index -> changes.forEach((id, book) -> {
+            if (book == null) {
+                index.remove(id);
+            } else {
+                index.add(id, book.getTitle(), book.getAuthor(), book.getPublisher());
+            }
+        }));
+    }
+
+    // For books already committed, such as an import chunk
+    public void indexAll(Collection<BookDTO> books) {
+        apply(index -> books.forEach(book -> index.add(book.getId(), book.getTitle(), book.getAuthor(),
+                book.getPublisher())));
+    }
+
+    // Ids of the requested page of hits, best first, and the total number of hits
+    public Hits search(String query, int offset, int limit) {
+        if (!isReady()) {
+            throw new ServiceUnavailableException("Search index is still being built");
+        }
+        long started = System.nanoTime();
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.terms(query)));
+        try {
+            return read(index -> index.search(terms, offset, limit));
+        } finally {
+            searches.increment();
+            totalSearchMicros.add((System.nanoTime() - started) / 1_000);
+        }
+    }
+
+    public SearchIndexStatsDTO stats() {
+        return read(index -> {
+            long postings = index.postings.values().stream().mapToLong(list -> list.size).sum();
+            return new SearchIndexStatsDTO(isReady(), index.docs.size(), index.postings.size(), postings,
+                    getLastRebuildAt(), getLastRebuildMs(), searches.sum(), totalSearchMicros.sum());
+        });
+    }
+
+    public record Hits(List<Long> ids, long total) {
+    }
+
+    // Term -> postings, plus the terms of each book so a change can take its old postings out
+    static final class Index {
+
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private double totalLength;
+
+        void add(Long id, String title, String author, String publisher) {
+            remove(id);
+            Map<String, Float> weights = new HashMap<>();
+            float length = analyze(title, TITLE_WEIGHT, weights) + analyze(author, AUTHOR_WEIGHT, weights)
+                    + analyze(publisher, PUBLISHER_WEIGHT, weights);
+            String[] terms = new String[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                Postings list = postings.computeIfAbsent(entry.getKey(), term -> new Postings());
+                list.add(id, entry.getValue());
+                terms[i++] = entry.getKey();
+            }
+            docs.put(id, new Doc(terms, length));
+            totalLength += length;
+        }
+
+        void remove(Long id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) {
+                return;
+            }
+            totalLength -= doc.length();
+            for (String term : doc.terms()) {
+                Postings list = postings.get(term);
+                if (list != null && list.remove(id) && list.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        Hits search(List<String> terms, int offset, int limit) {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return new Hits(List.of(), 0);
+                }
+                lists.add(list);
+            }
+            if (lists.isEmpty()) {
+                return new Hits(List.of(), 0);
+            }
+            // Seed the candidates from the rarest term; every other term can only narrow them down. Candidates
+            // are in id order, so each is looked up in the longer lists by binary search past the previous one
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            double averageLength = totalLength / docs.size();
+            Postings rarest = lists.get(0);
+            double rarestIdf = idf(rarest.size);
+            Hit[] hits = new Hit[rarest.size];
+            int count = rarest.size;
+            for (int i = 0; i < count; i++) {
+                hits[i] = new Hit(rarest.ids[i], docs.get(rarest.ids[i]).length() / averageLength);
+                hits[i].score = bm25(rarestIdf, rarest.weights[i], hits[i].relativeLength);
+            }
+            for (int n = 1; n < lists.size() && count > 0; n++) {
+                Postings list = lists.get(n);
+                double termIdf = idf(list.size);
+                int matched = 0;
+                int from = 0;
+                for (int i = 0; i < count; i++) {
+                    Hit hit = hits[i];
+                    int at = Arrays.binarySearch(list.ids, from, list.size, hit.id);
+                    if (at < 0) {
+                        from = -at - 1;
+                        continue;
+                    }
+                    hit.score += bm25(termIdf, list.weights[at], hit.relativeLength);
+                    hits[matched++] = hit;
+                    from = at + 1;
+                }
+                count = matched;
+            }
+
+            // Keep only the best offset + limit hits, then hand out the requested page
+            int wanted = offset + limit;
+            Comparator<Hit> ranking = Comparator.<Hit>comparingDouble(hit -> hit.score).thenComparing(hit -> -hit.id);
+            PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(wanted, count) + 1, ranking);
+            for (int i = 0; i < count; i++) {
+                best.add(hits[i]);
+                if (best.size() > wanted) {
+                    best.poll();
+                }
+            }
+            Hit[] ranked = best.toArray(new Hit[0]);
+            Arrays.sort(ranked, ranking.reversed());
+            List<Long> page = new ArrayList<>(limit);
+            for (int i = offset; i < ranked.length; i++) {
+                page.add(ranked[i].id);
+            }
+            return new Hits(page, count);
+        }
+
+        private double idf(int documentFrequency) {
+            return Math.log(1 + (docs.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        }
+
+        private static double bm25(double idf, float weight, double relativeLength) {
+            return idf * weight * (K1 + 1) / (weight + K1 * (1 - B + B * relativeLength));
+        }
+
+        private static float analyze(String text, float fieldWeight, Map<String, Float> weights) {
+            List<String> terms = TextAnalyzer.terms(text);
+            terms.forEach(term -> weights.merge(term, fieldWeight, Float::sum));
+            return terms.size() * fieldWeight;
+        }
+    }
+
+    private record Doc(String[] terms, float length) {
+    }
+
+    // Parallel arrays sorted by id. Add and remove find their slot by binary search; new books have the highest ids,
+    // so adding one appends, and only changes to existing books shift the entries after theirs
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(long id, float weight) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                weights[at] = weight;
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1));
+                weights = Arrays.copyOf(weights, ids.length);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            System.arraycopy(weights, at, weights, at + 1, size - at);
+            ids[at] = id;
+            weights[at] = weight;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            size--;
+            System.arraycopy(ids, at + 1, ids, at, size - at);
+            System.arraycopy(weights, at + 1, weights, at, size - at);
+            return true;
+        }
+    }
+
+    private static final class Hit {
+        private final long id;
+        private final double relativeLength;
+        private double score;
+
+        Hit(long id, double relativeLength) {
+            this.id = id;
+            this.relativeLength = relativeLength;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,348 @@
+package com.library.book.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.book.dto.BookDTO;
+import com.library.book.dto.ImportErrorDTO;
+import com.library.book.dto.ImportReportDTO;
+import com.library.book.entity.Book;
+import com.library.book.exception.BusinessException;
+import com.library.book.exception.DuplicateResourceException;
+import com.library.book.exception.ResourceNotFoundException;
+import com.library.book.mapper.BookMapper;
+import com.library.book.repository.BookBatchRepository;
+import com.library.book.repository.BookRepository;
+import com.library.book.search.BookSearchIndex;
+import com.library.common.outbox.ChangeEventType;
+import com.library.common.outbox.OutboxWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Bulk catalog load. The body is parsed one record at a time and handled in chunks: one IN query finds the
+// ISBNs already in the catalog, the rest go in as a JDBC batch with their CREATED events, one transaction
+// per chunk. Heap use depends on the chunk size, not on the size of the file.
+@Slf4j
+@Service
+public class BookImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final List<String> CSV_COLUMNS = List.of("title", "isbn", "author", "publisher",
+            "publishedyear", "availablecopies");
+
+    private final BookRepository bookRepository;
+    private final BookBatchRepository bookBatchRepository;
+    private final BookMapper bookMapper;
+    private final OutboxWriter outboxWriter;
+    private final BookSearchIndex bookSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    // One import per instance at a time; the progress of the last one stays readable afterwards
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress current;
+
+    public BookImportService(BookRepository bookRepository,
+                             BookBatchRepository bookBatchRepository,
+                             BookMapper bookMapper,
+                             OutboxWriter outboxWriter,
+                             BookSearchIndex bookSearchIndex,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${library.import.chunk-size:1000}") int chunkSize,
+                             @Value("${library.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.bookRepository = bookRepository;
+        this.bookBatchRepository = bookBatchRepository;
+        this.bookMapper = bookMapper;
+        this.outboxWriter = outboxWriter;
+        this.bookSearchIndex = bookSearchIndex;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportReportDTO importBooks(InputStream body, Format format) {
+        if (!running.compareAndSet(false, true)) {
+            throw new DuplicateResourceException("A catalog import is already running");
+        }
+        Progress progress = new Progress(format);
+        current = progress;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            RowReader rows = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            for (Row row = rows.next(); row != null; row = rows.next()) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, progress);
+        } catch (IOException ex) {
+            // Chunks already committed stay in; the report says how far the import got
+            progress.fail("Could not read the import: " + ex.getMessage());
+            throw new BusinessException("Could not read the import after " + progress.rowsRead() +
+                    " rows: " + ex.getMessage());
+        } finally {
+            progress.finish();
+            running.set(false);
+        }
+        ImportReportDTO report = progress.report();
+        log.info("Imported {} books, rejected {} in {} ms", report.getImported(), report.getRejected(),
+                report.getDurationMs());
+        return report;
+    }
+
+    public ImportReportDTO getProgress() {
+        Progress progress = current;
+        if (progress == null) {
+            throw new ResourceNotFoundException("No catalog import has run on this instance");
+        }
+        return progress.report();
+    }
+
+    private void importChunk(List<Row> chunk, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        progress.read(chunk.size());
+
+        // Validation and duplicates within the chunk first, then one query for ISBNs already stored.
+        // Keys are lower-cased because the unique index compares ISBNs case-insensitively.
+        Map<String, Row> candidates = new LinkedHashMap<>();
+        for (Row row : chunk) {
+            String error = row.error() != null ? row.error() : validate(row.book());
+            if (error == null && candidates.containsKey(isbnKey(row))) {
+                error = "ISBN " + row.book().getIsbn() + " appears more than once in the import";
+            }
+            if (error != null) {
+                progress.reject(row, error);
+            } else {
+                candidates.put(isbnKey(row), row);
+            }
+        }
+        if (!candidates.isEmpty()) {
+            for (String isbn : bookRepository.findExistingIsbns(candidates.keySet())) {
+                Row row = candidates.remove(isbn.toLowerCase(Locale.ROOT));
+                if (row != null) {
+                    progress.reject(row, "Book with ISBN " + row.book().getIsbn() + " already exists");
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            progress.chunkDone(0);
+            return;
+        }
+
+        List<Book> books = candidates.values().stream()
+                .map(row -> bookMapper.toEntity(row.book()))
+                .collect(Collectors.toList());
+        Map<Long, BookDTO> created = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bookBatchRepository.insertBooks(books);
+                books.forEach(book -> created.put(book.getId(), bookMapper.toDTO(book)));
+                outboxWriter.appendAll(ChangeEventType.CREATED, created);
+            });
+            bookSearchIndex.indexAll(created.values());
+            progress.chunkDone(books.size());
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent write took one of the ISBNs after the check; the chunk rolled back as a whole
+            candidates.values().forEach(row -> progress.reject(row,
+                    "Chunk rolled back after a concurrent ISBN conflict; import this row again"));
+            progress.chunkDone(0);
+        }
+    }
+
+    private static String isbnKey(Row row) {
+        return row.book().getIsbn().toLowerCase(Locale.ROOT);
+    }
+
+    private String validate(BookDTO book) {
+        Set<ConstraintViolation<BookDTO>> violations = validator.validate(book);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private RowReader csvRows(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new BusinessException("The import is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalizeColumn(header.get(i)), i);
+        }
+        Set<String> missing = new HashSet<>(List.of("title", "isbn", "author", "availablecopies"));
+        missing.removeAll(columns.keySet());
+        if (!missing.isEmpty()) {
+            throw new BusinessException("CSV header is missing columns " + missing + "; expected " + CSV_COLUMNS);
+        }
+
+        return () -> {
+            List<String> record = csv.readRecord();
+            if (record == null) {
+                return null;
+            }
+            try {
+                BookDTO book = new BookDTO(null,
+                        field(record, columns, "title"),
+                        field(record, columns, "isbn"),
+                        field(record, columns, "author"),
+                        field(record, columns, "publisher"),
+                        integerField(record, columns, "publishedyear"),
+                        integerField(record, columns, "availablecopies"));
+                return new Row(csv.recordLine(), book, null);
+            } catch (NumberFormatException ex) {
+                return new Row(csv.recordLine(), new BookDTO(null, null, field(record, columns, "isbn"),
+                        null, null, null, null), ex.getMessage());
+            }
+        };
+    }
+
+    private RowReader ndjsonRows(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber[0]++;
+            } while (line.isBlank());
+            try {
+                BookDTO book = objectMapper.readValue(line, BookDTO.class);
+                book.setId(null);
+                return new Row(lineNumber[0], book, null);
+            } catch (JsonProcessingException ex) {
+                return new Row(lineNumber[0], new BookDTO(), "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        };
+    }
+
+    // "Published Year", "published_year" and "publishedYear" all name the same column; drops a UTF-8 BOM
+    private static String normalizeColumn(String name) {
+        return name.replace("\uFEFF", "").replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer integerField(List<String> record, Map<String, Integer> columns, String column) {
+        String value = field(record, columns, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new NumberFormatException(column + ": '" + value + "' is not a whole number");
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        Row next() throws IOException;
+    }
+
+    private record Row(long line, BookDTO book, String error) {
+    }
+
+    // Counters of one import, read by the progress endpoint while the import thread updates them
+    private class Progress {
+
+        private final Format format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final List<ImportErrorDTO> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private long chunks;
+        private boolean errorsTruncated;
+        private Long durationMs;
+
+        Progress(Format format) {
+            this.format = format;
+        }
+
+        synchronized void read(int rows) {
+            rowsRead += rows;
+        }
+
+        synchronized long rowsRead() {
+            return rowsRead;
+        }
+
+        synchronized void reject(Row row, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportErrorDTO(row.line(), row.book().getIsbn(), message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        synchronized void fail(String message) {
+            errors.add(new ImportErrorDTO(0, null, message));
+        }
+
+        synchronized void chunkDone(int importedRows) {
+            imported += importedRows;
+            chunks++;
+        }
+
+        synchronized void finish() {
+            durationMs = (System.nanoTime() - startedNanos) / 1_000_000;
+        }
+
+        synchronized ImportReportDTO report() {
+            long elapsed = durationMs != null ? durationMs : (System.nanoTime() - startedNanos) / 1_000_000;
+            return new ImportReportDTO(durationMs == null, format.name(), startedAt, elapsed, rowsRead, imported,
+                    rejected, chunks, List.copyOf(errors), errorsTruncated);
+        }
+    }
+}
\ No newline at end of file
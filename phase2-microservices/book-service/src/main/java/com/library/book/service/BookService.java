@@ -1,24 +1,58 @@
 package com.library.book.service;
 
+import com.library.book.dto.BatchReservationDTO;
 import com.library.book.dto.BookDTO;
+import com.library.book.dto.BookSearchResultDTO;
+import com.library.book.dto.CopyReservationDTO;
+import com.library.book.dto.InventoryDTO;
+import com.library.book.dto.ReservationItemDTO;
 import com.library.book.entity.Book;
+import com.library.book.entity.CopyReservation;
+import com.library.book.exception.BusinessException;
 import com.library.book.exception.DuplicateResourceException;
+import com.library.book.exception.ReservationFailedException;
 import com.library.book.exception.ResourceNotFoundException;
 import com.library.book.mapper.BookMapper;
 import com.library.book.repository.BookRepository;
+import com.library.book.repository.CopyReservationRepository;
+import com.library.book.search.BookSearchIndex;
+import com.library.common.outbox.ChangeEventType;
+import com.library.common.outbox.OutboxWriter;
+import com.library.common.web.CursorPage;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class BookService {
 
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final BookRepository bookRepository;
+    private final CopyReservationRepository copyReservationRepository;
     private final BookMapper bookMapper;
+    private final EntityManager entityManager;
+    private final OutboxWriter outboxWriter;
+    private final BookSearchIndex bookSearchIndex;
 
     public List<BookDTO> getAllBooks() {
         return bookRepository.findAll().stream()
@@ -26,6 +60,71 @@ public class BookService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<BookDTO> getBooksPage(String cursor, int size) {
+        int pageSize = CursorPage.checkSize(size);
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (books.size() > pageSize) {
+            books = books.subList(0, pageSize);
+            nextCursor = CursorPage.encodeCursor(books.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(books.stream().map(bookMapper::toDTO).collect(Collectors.toList()), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<BookDTO> consumer) {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            int count = 0;
+            for (Iterator<Book> it = books.iterator(); it.hasNext(); ) {
+                consumer.accept(bookMapper.toDTO(it.next()));
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    public List<BookDTO> getBooksByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return bookRepository.findAllById(new HashSet<>(ids)).stream()
+                .map(bookMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<InventoryDTO> getInventory(Collection<Long> ids) {
+        return availableCopies(new HashSet<>(ids)).entrySet().stream()
+                .map(entry -> new InventoryDTO(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    // Ranked ids come from the in-memory index; only the requested page is read from the database
+    @Transactional(readOnly = true)
+    public BookSearchResultDTO searchBooks(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("Search query is required");
+        }
+        int pageSize = CursorPage.checkSize(size);
+        if (page < 0 || (long) page * pageSize > Integer.MAX_VALUE - pageSize) {
+            throw new BusinessException("Page number is out of range: " + page);
+        }
+        BookSearchIndex.Hits hits = bookSearchIndex.search(query, page * pageSize, pageSize);
+        Map<Long, Book> books = bookRepository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        // A book deleted on another instance stays in the index until the next rebuild; skip it
+        List<BookDTO> ranked = hits.ids().stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .map(bookMapper::toDTO)
+                .collect(Collectors.toList());
+        return new BookSearchResultDTO(query, page, pageSize, hits.total(), ranked);
+    }
+
     public BookDTO getBookById(Long id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
@@ -38,7 +137,10 @@ public class BookService {
         }
         Book book = bookMapper.toEntity(bookDTO);
         Book savedBook = bookRepository.save(book);
-        return bookMapper.toDTO(savedBook);
+        BookDTO created = bookMapper.toDTO(savedBook);
+        outboxWriter.append(savedBook.getId(), ChangeEventType.CREATED, null, created);
+        bookSearchIndex.indexAfterCommit(created);
+        return created;
     }
 
     public BookDTO updateBook(Long id, BookDTO bookDTO) {
@@ -50,9 +152,172 @@ public class BookService {
             throw new DuplicateResourceException("Book with ISBN " + bookDTO.getIsbn() + " already exists");
         }
 
+        // A stock correction moves the number of copies owned by the same amount
+        int copiesDelta = bookDTO.getAvailableCopies() == null ? 0
+                : bookDTO.getAvailableCopies() - existingBook.getAvailableCopies();
+        if (existingBook.getTotalCopies() != null) {
+            existingBook.setTotalCopies(existingBook.getTotalCopies() + copiesDelta);
+        }
         bookMapper.updateEntityFromDTO(bookDTO, existingBook);
-        Book updatedBook = bookRepository.save(existingBook);
-        return bookMapper.toDTO(updatedBook);
+        // Flush so the row lock is held before the event gets its id
+        Book updatedBook = bookRepository.saveAndFlush(existingBook);
+        BookDTO updated = bookMapper.toDTO(updatedBook);
+        outboxWriter.append(id, ChangeEventType.UPDATED, null, updated);
+        // Loan Service serves its hold queue from the copies a correction adds
+        if (copiesDelta != 0) {
+            recordInventoryChange(id, copiesDelta);
+        }
+        bookSearchIndex.indexAfterCommit(updated);
+        return updated;
+    }
+
+    // The token names this copy: repeating the call with it answers the first outcome without taking another copy
+    public InventoryDTO reserveCopy(Long id, String token) {
+        if (token != null && copyReservationRepository.insertReserved(token, id, LocalDateTime.now()) == 0) {
+            return replayReservation(id, token);
+        }
+        // A refusal rolls the reservation row back with it
+        if (bookRepository.reserveCopy(id) == 0) {
+            if (!bookRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Book not found with id: " + id);
+            }
+            throw new BusinessException("No copies available for book with id: " + id);
+        }
+        return recordInventoryChange(id, -1);
+    }
+
+    // Credits a copy once per token. A token never reserved, e.g. a compensation for a reserve that timed out
+    // before it arrived, credits nothing and refuses that reserve if it turns up later.
+    public InventoryDTO releaseCopy(Long id, String token) {
+        if (!bookRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Book not found with id: " + id);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (token != null && copyReservationRepository.release(token, id, now) == 0) {
+            copyReservationRepository.insertReleased(token, id, now);
+            return currentInventory(id);
+        }
+        // Already at totalCopies: the copy was credited some other way
+        if (bookRepository.releaseCopy(id) == 0) {
+            return currentInventory(id);
+        }
+        return recordInventoryChange(id, 1);
+    }
+
+    // All or nothing: any book short of copies rolls the whole batch back, reservation rows included.
+    // Books are updated in id order, so two overlapping batches cannot deadlock on each other's rows.
+    // Copies whose token was already reserved, by an earlier attempt at the same batch, are not taken again.
+    public BatchReservationDTO reserveCopies(List<CopyReservationDTO> copies) {
+        SortedMap<Long, Integer> requested = countCopies(copies);
+        LocalDateTime now = LocalDateTime.now();
+        SortedMap<Long, Integer> toTake = new TreeMap<>();
+        for (CopyReservationDTO copy : copies) {
+            if (copy.getToken() == null
+                    || copyReservationRepository.insertReserved(copy.getToken(), copy.getBookId(), now) == 1) {
+                toTake.merge(copy.getBookId(), 1, Integer::sum);
+            } else {
+                replayReservation(copy.getBookId(), copy.getToken());
+            }
+        }
+        List<Long> reserved = new ArrayList<>();
+        toTake.forEach((id, count) -> {
+            if (bookRepository.reserveCopies(id, count) == 1) {
+                reserved.add(id);
+            }
+        });
+
+        Map<Long, Integer> available = availableCopies(requested.keySet());
+        boolean complete = reserved.size() == toTake.size();
+        List<ReservationItemDTO> items = new ArrayList<>();
+        requested.forEach((id, count) -> items.add(new ReservationItemDTO(id, count,
+                reservationStatus(id, count, complete, reserved, available), available.get(id))));
+
+        if (!complete) {
+            throw new ReservationFailedException(new BatchReservationDTO(false, items));
+        }
+        toTake.forEach((id, count) -> outboxWriter.append(id, ChangeEventType.INVENTORY_CHANGED, -count,
+                new InventoryDTO(id, available.get(id))));
+        return new BatchReservationDTO(true, items);
+    }
+
+    // Compensation for reserveCopies, copy by copy with releaseCopy's rules; books deleted since are skipped
+    public List<InventoryDTO> releaseCopies(List<CopyReservationDTO> copies) {
+        SortedMap<Long, Integer> credited = new TreeMap<>();
+        countCopies(copies).keySet().forEach(id -> credited.put(id, 0));
+        LocalDateTime now = LocalDateTime.now();
+        copies.stream().sorted(Comparator.comparing(CopyReservationDTO::getBookId)).forEach(copy -> {
+            if (copy.getToken() != null
+                    && copyReservationRepository.release(copy.getToken(), copy.getBookId(), now) == 0) {
+                copyReservationRepository.insertReleased(copy.getToken(), copy.getBookId(), now);
+            } else if (bookRepository.releaseCopy(copy.getBookId()) == 1) {
+                credited.merge(copy.getBookId(), 1, Integer::sum);
+            }
+        });
+
+        Map<Long, Integer> available = availableCopies(credited.keySet());
+        List<InventoryDTO> inventory = new ArrayList<>();
+        credited.forEach((id, count) -> {
+            if (available.containsKey(id)) {
+                InventoryDTO item = new InventoryDTO(id, available.get(id));
+                if (count > 0) {
+                    outboxWriter.append(id, ChangeEventType.INVENTORY_CHANGED, count, item);
+                }
+                inventory.add(item);
+            }
+        });
+        return inventory;
+    }
+
+    private SortedMap<Long, Integer> countCopies(List<CopyReservationDTO> copies) {
+        if (copies == null || copies.isEmpty()) {
+            throw new BusinessException("At least one book ID is required");
+        }
+        if (copies.stream().anyMatch(copy -> copy.getBookId() == null)) {
+            throw new BusinessException("Every copy needs a book ID");
+        }
+        return copies.stream().collect(Collectors.groupingBy(CopyReservationDTO::getBookId, TreeMap::new,
+                Collectors.summingInt(copy -> 1)));
+    }
+
+    private Map<Long, Integer> availableCopies(Collection<Long> ids) {
+        return bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Book::getAvailableCopies));
+    }
+
+    private String reservationStatus(Long id, int count, boolean complete, List<Long> reserved,
+                                     Map<Long, Integer> available) {
+        if (!available.containsKey(id)) {
+            return "NOT_FOUND";
+        }
+        if (complete) {
+            return "RESERVED";
+        }
+        // Rolled back: say whether this book could have been served on its own
+        return reserved.contains(id) || available.get(id) >= count ? "AVAILABLE" : "UNAVAILABLE";
+    }
+
+    private InventoryDTO replayReservation(Long id, String token) {
+        CopyReservation reservation = copyReservationRepository.findById(token)
+                .orElseThrow(() -> new IllegalStateException("Reservation " + token + " disappeared"));
+        if (!reservation.getBookId().equals(id)) {
+            throw new BusinessException("Reservation " + token + " is for book " + reservation.getBookId());
+        }
+        if (reservation.getStatus() == CopyReservation.Status.RELEASED) {
+            throw new BusinessException("Reservation " + token + " was already released");
+        }
+        return currentInventory(id);
+    }
+
+    private InventoryDTO recordInventoryChange(Long id, int delta) {
+        InventoryDTO inventory = currentInventory(id);
+        outboxWriter.append(id, ChangeEventType.INVENTORY_CHANGED, delta, inventory);
+        return inventory;
+    }
+
+    private InventoryDTO currentInventory(Long id) {
+        Integer availableCopies = bookRepository.findAvailableCopiesById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+        return new InventoryDTO(id, availableCopies);
     }
 
     public void deleteBook(Long id) {
@@ -60,5 +325,8 @@ public class BookService {
             throw new ResourceNotFoundException("Book not found with id: " + id);
         }
         bookRepository.deleteById(id);
+        bookRepository.flush();
+        outboxWriter.append(id, ChangeEventType.DELETED, null, null);
+        bookSearchIndex.removeAfterCommit(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,390 @@
+package com.library.book.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.book.dto.AvailabilityStreamStatsDTO;
+import com.library.book.dto.InventoryDTO;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Server-sent event subscribers of this node. An idle subscriber costs an async request and a small record, no
+// thread. A change only reaches the subscribers watching that book and those watching every book. Each subscriber
+// queues at most one entry per book, the latest count, so a slow client holds a bounded, coalesced backlog.
+// Writes are non-blocking: a sender writes while the connection takes data and otherwise leaves the backlog for the
+// container to resume once the client reads again, so a client that stops reading never holds a sender up. It is
+// disconnected once its backlog overflows or it has not taken data for write-timeout.
+@Component
+public class AvailabilityHub implements DisposableBean {
+
+    private static final byte[] CONNECTED = ": connected\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] KEEP_ALIVE = ": keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<Long, Set<Subscriber>> subscribersByBook = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribersOfAllBooks = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // A subscriber is queued here at most once at a time, so the queue never outgrows the subscriber count
+    private final ExecutorService senders;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final long writeTimeoutNanos;
+    private final int maxPendingBooks;
+
+    private final LongAdder changesReceived = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder droppedSubscribers = new LongAdder();
+
+    public AvailabilityHub(ObjectMapper objectMapper,
+                           @Value("${library.availability.sender-threads:4}") int senderThreads,
+                           @Value("${library.availability.timeout:30m}") Duration timeout,
+                           @Value("${library.availability.write-timeout:1m}") Duration writeTimeout,
+                           @Value("${library.availability.max-pending-books:1000}") int maxPendingBooks) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("availability-sender-");
+        threadFactory.setDaemon(true);
+        this.senders = Executors.newFixedThreadPool(senderThreads, threadFactory);
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.maxPendingBooks = maxPendingBooks;
+    }
+
+    // Null bookIds watches every book. The subscriber is registered before the snapshot is read, and the snapshot
+    // never replaces a change that reached the subscriber first, so no change falls between the two
+    public void subscribe(Collection<Long> bookIds, Supplier<List<InventoryDTO>> snapshot,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Subscriber subscriber = new Subscriber(bookIds == null ? null : Set.copyOf(bookIds));
+        subscribers.add(subscriber);
+        if (subscriber.bookIds == null) {
+            subscribersOfAllBooks.add(subscriber);
+        } else {
+            subscriber.bookIds.forEach(id -> subscribersByBook.compute(id, (key, watching) -> {
+                Set<Subscriber> set = watching != null ? watching : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            }));
+        }
+        try {
+            subscriber.offerSnapshot(snapshot.get());
+        } catch (RuntimeException ex) {
+            unregister(subscriber);
+            throw ex;
+        }
+
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        AsyncContext async = request.startAsync();
+        async.setTimeout(timeout.toMillis());
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                unregister(subscriber);
+            }
+
+            // EventSource clients reconnect on their own
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                disconnect(subscriber);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                disconnect(subscriber);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        ServletOutputStream output = response.getOutputStream();
+        if (!subscriber.attach(async, output)) {
+            // Overflowed while the snapshot was read
+            async.complete();
+            return;
+        }
+        // The container calls onWritePossible once the connection is ready; the first drain commits the headers
+        output.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() {
+                drain(subscriber);
+            }
+
+            @Override
+            public void onError(Throwable ex) {
+                disconnect(subscriber);
+            }
+        });
+    }
+
+    // Called by BookChangeFeed with the changes of one poll, oldest first
+    public void publish(List<InventoryDTO> changes) {
+        for (InventoryDTO change : changes) {
+            changesReceived.increment();
+            subscribersOfAllBooks.forEach(subscriber -> deliver(subscriber, change));
+            Set<Subscriber> watching = subscribersByBook.get(change.getBookId());
+            if (watching != null) {
+                watching.forEach(subscriber -> deliver(subscriber, change));
+            }
+        }
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    // Proxies drop connections that stay silent; a comment line keeps them open and finds clients that went away.
+    // A client that has not taken data for write-timeout is let go here, since no write is waiting on it
+    @Scheduled(fixedDelayString = "${library.availability.heartbeat-interval:30s}")
+    public void sendHeartbeats() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> {
+            if (subscriber.stalledLongerThan(now, writeTimeoutNanos)) {
+                droppedSubscribers.increment();
+                disconnect(subscriber);
+            } else if (subscriber.requestHeartbeat()) {
+                senders.execute(() -> drain(subscriber));
+            }
+        });
+    }
+
+    // The feed's position comes from BookChangeFeed
+    public AvailabilityStreamStatsDTO stats(long lastEventId, int pendingGaps) {
+        return new AvailabilityStreamStatsDTO(subscribers.size(), subscribersOfAllBooks.size(),
+                subscribersByBook.size(), lastEventId, pendingGaps, changesReceived.sum(), messagesSent.sum(),
+                droppedSubscribers.sum());
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(this::disconnect);
+        senders.shutdown();
+    }
+
+    private void deliver(Subscriber subscriber, InventoryDTO change) {
+        switch (subscriber.offer(change)) {
+            case SCHEDULE -> senders.execute(() -> drain(subscriber));
+            case OVERFLOW -> {
+                // Too far behind to catch up: disconnect, the client reconnects and starts over from a snapshot
+                droppedSubscribers.increment();
+                disconnect(subscriber);
+            }
+            case QUEUED -> {
+            }
+        }
+    }
+
+    // Runs on a sender or, once the client has read enough, on a container thread; one at a time per subscriber.
+    // A write only goes out while the connection takes data, so it never blocks
+    private void drain(Subscriber subscriber) {
+        ServletOutputStream output = subscriber.output;
+        synchronized (output) {
+            try {
+                while (output.isReady()) {
+                    byte[] message = subscriber.next();
+                    if (message == null) {
+                        return;
+                    }
+                    output.write(message);
+                    messagesSent.increment();
+                    if (output.isReady()) {
+                        output.flush();
+                    }
+                }
+                // The rest stays queued, and coalescing, until the container calls onWritePossible
+                subscriber.stalled(System.nanoTime());
+            } catch (IOException | IllegalStateException ex) {
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (unregister(subscriber)) {
+            subscriber.complete();
+        }
+    }
+
+    private boolean unregister(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        subscriber.close();
+        if (subscriber.bookIds == null) {
+            subscribersOfAllBooks.remove(subscriber);
+        } else {
+            subscriber.bookIds.forEach(id -> subscribersByBook.computeIfPresent(id, (key, watching) -> {
+                watching.remove(subscriber);
+                return watching.isEmpty() ? null : watching;
+            }));
+        }
+        return true;
+    }
+
+    private byte[] event(List<InventoryDTO> changes) {
+        try {
+            return ("event: availability\ndata:" + objectMapper.writeValueAsString(changes) + "\n\n")
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not write availability event", ex);
+        }
+    }
+
+    private enum Offer {
+        QUEUED, SCHEDULE, OVERFLOW
+    }
+
+    private final class Subscriber {
+
+        private final Set<Long> bookIds;
+        // Attached once the snapshot is in; drains only start after that, from the write listener
+        private volatile AsyncContext async;
+        private volatile ServletOutputStream output;
+        // Latest count per book not yet written; a newer count for the same book replaces the queued one
+        private Map<Long, InventoryDTO> pending = new LinkedHashMap<>();
+        // Books changed since the subscriber registered, until its snapshot is in
+        private Set<Long> changedBeforeSnapshot = new HashSet<>();
+        private boolean connected;
+        private boolean heartbeatDue;
+        // Set from registration until the first drain, which the write listener starts
+        private boolean scheduled = true;
+        // When the connection last stopped taking data, 0 while it takes it
+        private long stalledSince;
+        private boolean closed;
+
+        Subscriber(Set<Long> bookIds) {
+            this.bookIds = bookIds;
+        }
+
+        synchronized boolean attach(AsyncContext async, ServletOutputStream output) {
+            this.async = async;
+            this.output = output;
+            return !closed;
+        }
+
+        synchronized Offer offer(InventoryDTO change) {
+            if (closed) {
+                return Offer.QUEUED;
+            }
+            pending.put(change.getBookId(), change);
+            if (changedBeforeSnapshot != null) {
+                changedBeforeSnapshot.add(change.getBookId());
+            }
+            if (pending.size() > maxPendingBooks) {
+                closed = true;
+                return Offer.OVERFLOW;
+            }
+            return schedule() ? Offer.SCHEDULE : Offer.QUEUED;
+        }
+
+        synchronized void offerSnapshot(List<InventoryDTO> snapshot) {
+            for (InventoryDTO inventory : snapshot) {
+                if (!changedBeforeSnapshot.contains(inventory.getBookId())) {
+                    pending.put(inventory.getBookId(), inventory);
+                }
+            }
+            changedBeforeSnapshot = null;
+        }
+
+        synchronized boolean requestHeartbeat() {
+            if (closed) {
+                return false;
+            }
+            heartbeatDue = true;
+            return schedule();
+        }
+
+        synchronized boolean stalledLongerThan(long now, long limitNanos) {
+            return stalledSince != 0 && now - stalledSince > limitNanos;
+        }
+
+        synchronized void stalled(long now) {
+            if (stalledSince == 0) {
+                stalledSince = now;
+            }
+        }
+
+        // Everything queued goes out as one message; null hands the subscriber back to the idle state
+        synchronized byte[] next() {
+            stalledSince = 0;
+            if (!closed && !connected) {
+                connected = true;
+                return CONNECTED;
+            }
+            if (!closed && !pending.isEmpty()) {
+                List<InventoryDTO> changes = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+                heartbeatDue = false;
+                return event(changes);
+            }
+            if (!closed && heartbeatDue) {
+                heartbeatDue = false;
+                return KEEP_ALIVE;
+            }
+            scheduled = false;
+            return null;
+        }
+
+        // Takes the output's lock first, as drain does: once this returns no drain writes again, so nothing reaches a
+        // response the container has completed and recycled
+        void close() {
+            ServletOutputStream attached;
+            synchronized (this) {
+                attached = output;
+            }
+            synchronized (attached != null ? attached : this) {
+                synchronized (this) {
+                    closed = true;
+                    pending = new LinkedHashMap<>();
+                }
+            }
+        }
+
+        // Outside the lock: completing can call back into the async listener
+        void complete() {
+            AsyncContext attached;
+            synchronized (this) {
+                attached = async;
+            }
+            if (attached == null) {
+                return;
+            }
+            try {
+                attached.complete();
+            } catch (IllegalStateException ex) {
+                // Already completed by the container
+            }
+        }
+
+        private boolean schedule() {
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+    }
+}
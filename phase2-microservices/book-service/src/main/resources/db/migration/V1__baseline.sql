@@ -0,0 +1,13 @@
+-- Tables as Hibernate generated them under ddl-auto=update; "if not exists" adopts existing databases
+create table if not exists books (
+    id bigint not null auto_increment,
+    author varchar(255) not null,
+    available_copies integer not null,
+    isbn varchar(255) not null,
+    published_year integer,
+    publisher varchar(255),
+    title varchar(255) not null,
+    primary key (id),
+    -- existsByIsbn / findByIsbn
+    constraint uk_books_isbn unique (isbn)
+) engine=InnoDB;
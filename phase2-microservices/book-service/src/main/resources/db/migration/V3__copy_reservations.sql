@@ -0,0 +1,14 @@
+-- One row per copy reserved under a caller's token. A retried reserve finds its row and takes nothing more,
+-- a repeated release finds it RELEASED, and a release that overtakes its reserve leaves a RELEASED row
+-- that refuses the reserve when it arrives.
+create table copy_reservations (
+    token varchar(36) not null,
+    book_id bigint not null,
+    status enum ('RESERVED','RELEASED') not null,
+    created_at datetime(6) not null,
+    released_at datetime(6),
+    primary key (token)
+) engine=InnoDB;
+
+-- Ceiling for releases; null for books created before it was tracked, which are not capped
+alter table books add column total_copies integer;
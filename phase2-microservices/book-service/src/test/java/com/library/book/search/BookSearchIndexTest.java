@@ -0,0 +1,97 @@
+package com.library.book.search;
+
+import com.library.book.dto.BookDTO;
+import com.library.book.event.BookChangeFeed;
+import com.library.common.outbox.ChangeEventType;
+import com.library.common.outbox.OutboxStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookSearchIndexTest {
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookChangeFeed bookChangeFeed;
+
+    @Autowired
+    private OutboxStore outboxStore;
+
+    @Test
+    void keepsHitsAndRankingThroughUpdatesAndRemovals() {
+        // Ids arrive out of order, so postings have to insert into the middle
+        List<Long> ids = new ArrayList<>();
+        for (long id = 900_001; id <= 900_200; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids);
+        List<BookDTO> books = new ArrayList<>();
+        for (Long id : ids) {
+            books.add(book(id, id % 2 == 0 ? "Quokka Atlas" : "Quokka Field Guide", "Ida Marsh"));
+        }
+        bookSearchIndex.indexAll(books);
+
+        assertThat(bookSearchIndex.search("quokka", 0, 10).total()).isEqualTo(200);
+        assertThat(bookSearchIndex.search("quokka atlas", 0, 10).total()).isEqualTo(100);
+
+        Map<Long, BookDTO> changes = new HashMap<>();
+        for (long id = 900_001; id <= 900_100; id++) {
+            changes.put(id, null);
+        }
+        changes.put(900_150L, book(900_150L, "Wombat Atlas", "Ida Marsh"));
+        bookSearchIndex.applyAll(changes);
+
+        assertThat(bookSearchIndex.search("quokka", 0, 10).total()).isEqualTo(99);
+        assertThat(bookSearchIndex.search("quokka atlas", 0, 100).ids())
+                .hasSize(49)
+                .doesNotContain(900_150L)
+                .allMatch(id -> id > 900_100 && id % 2 == 0);
+        assertThat(bookSearchIndex.search("wombat marsh", 0, 10).ids()).containsExactly(900_150L);
+        // A title match ranks above an author match
+        bookSearchIndex.indexAll(List.of(book(900_300L, "Marsh Birds", "Quokka Press")));
+        assertThat(bookSearchIndex.search("marsh", 0, 1).ids()).containsExactly(900_300L);
+    }
+
+    @Test
+    void followsChangesCommittedOnOtherReplicas() {
+        // Another replica's writes reach this node only through outbox_events
+        outboxStore.insert(910_001L, ChangeEventType.CREATED, null,
+                "{\"id\":910001,\"title\":\"Pangolin Tales\",\"author\":\"Ora Vance\",\"availableCopies\":2}",
+                LocalDateTime.now());
+        bookChangeFeed.poll();
+
+        assertThat(bookSearchIndex.search("pangolin", 0, 10).ids()).containsExactly(910_001L);
+
+        outboxStore.insert(910_001L, ChangeEventType.UPDATED, null,
+                "{\"id\":910001,\"title\":\"Armadillo Tales\",\"author\":\"Ora Vance\",\"availableCopies\":2}",
+                LocalDateTime.now());
+        outboxStore.insert(910_001L, ChangeEventType.INVENTORY_CHANGED, -1,
+                "{\"bookId\":910001,\"availableCopies\":1}", LocalDateTime.now());
+        bookChangeFeed.poll();
+
+        assertThat(bookSearchIndex.search("pangolin", 0, 10).total()).isZero();
+        assertThat(bookSearchIndex.search("armadillo vance", 0, 10).ids()).containsExactly(910_001L);
+
+        outboxStore.insert(910_001L, ChangeEventType.DELETED, null, null, LocalDateTime.now());
+        bookChangeFeed.poll();
+
+        assertThat(bookSearchIndex.search("armadillo", 0, 10).total()).isZero();
+    }
+
+    private static BookDTO book(Long id, String title, String author) {
+        return new BookDTO(id, title, "isbn-" + id, author, null, 2020, 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.library.book.service;
+
+import com.library.book.dto.BookDTO;
+import com.library.book.dto.CopyReservationDTO;
+import com.library.book.exception.BusinessException;
+import com.library.book.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookReservationTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        Long bookId = createBook(5);
+        ExecutorService checkouts = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> outcomes = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                Callable<Boolean> checkout = () -> {
+                    try {
+                        bookService.reserveCopy(bookId, UUID.randomUUID().toString());
+                        return true;
+                    } catch (BusinessException ex) {
+                        return false;
+                    }
+                };
+                outcomes.add(checkouts.submit(checkout));
+            }
+            int reserved = 0;
+            for (Future<Boolean> outcome : outcomes) {
+                reserved += outcome.get() ? 1 : 0;
+            }
+
+            assertThat(reserved).isEqualTo(5);
+            assertThat(availableCopies(bookId)).isZero();
+        } finally {
+            checkouts.shutdown();
+        }
+    }
+
+    @Test
+    void retriedReserveTakesOneCopy() {
+        Long bookId = createBook(3);
+        String token = UUID.randomUUID().toString();
+
+        bookService.reserveCopy(bookId, token);
+        bookService.reserveCopy(bookId, token);
+
+        assertThat(availableCopies(bookId)).isEqualTo(2);
+    }
+
+    @Test
+    void repeatedReleaseCreditsOnce() {
+        Long bookId = createBook(3);
+        String token = UUID.randomUUID().toString();
+        bookService.reserveCopy(bookId, token);
+
+        bookService.releaseCopy(bookId, token);
+        bookService.releaseCopy(bookId, token);
+
+        assertThat(availableCopies(bookId)).isEqualTo(3);
+    }
+
+    @Test
+    void releaseAheadOfItsReserveRefusesTheReserve() {
+        Long bookId = createBook(3);
+        String token = UUID.randomUUID().toString();
+
+        // The caller gave up on a reserve that had not arrived yet and compensated
+        bookService.releaseCopy(bookId, token);
+
+        assertThat(availableCopies(bookId)).isEqualTo(3);
+        assertThatThrownBy(() -> bookService.reserveCopy(bookId, token)).isInstanceOf(BusinessException.class);
+        assertThat(availableCopies(bookId)).isEqualTo(3);
+    }
+
+    @Test
+    void releaseIsCappedAtTotalCopies() {
+        Long bookId = createBook(2);
+
+        bookService.releaseCopy(bookId, null);
+
+        assertThat(availableCopies(bookId)).isEqualTo(2);
+    }
+
+    @Test
+    void retriedBatchReservesEachCopyOnce() {
+        Long first = createBook(2);
+        Long second = createBook(2);
+        List<CopyReservationDTO> cart = List.of(copy(first), copy(first), copy(second));
+
+        bookService.reserveCopies(cart);
+        bookService.reserveCopies(cart);
+
+        assertThat(availableCopies(first)).isZero();
+        assertThat(availableCopies(second)).isEqualTo(1);
+    }
+
+    @Test
+    void batchReleaseAheadOfItsReserveCreditsNothing() {
+        Long bookId = createBook(2);
+        List<CopyReservationDTO> cart = List.of(copy(bookId));
+
+        bookService.releaseCopies(cart);
+
+        assertThat(availableCopies(bookId)).isEqualTo(2);
+        assertThatThrownBy(() -> bookService.reserveCopies(cart)).isInstanceOf(BusinessException.class);
+        assertThat(availableCopies(bookId)).isEqualTo(2);
+    }
+
+    @Test
+    void repeatedBatchReleaseCreditsOnce() {
+        Long bookId = createBook(2);
+        List<CopyReservationDTO> cart = List.of(copy(bookId), copy(bookId));
+        bookService.reserveCopies(cart);
+
+        bookService.releaseCopies(cart);
+        bookService.releaseCopies(cart);
+
+        assertThat(availableCopies(bookId)).isEqualTo(2);
+    }
+
+    private static CopyReservationDTO copy(Long bookId) {
+        return new CopyReservationDTO(bookId, UUID.randomUUID().toString());
+    }
+
+    private Long createBook(int copies) {
+        String isbn = UUID.randomUUID().toString();
+        return bookService.createBook(new BookDTO(null, "Title " + isbn, isbn, "Author", null, null, copies)).getId();
+    }
+
+    private int availableCopies(Long bookId) {
+        return bookRepository.findAvailableCopiesById(bookId).orElseThrow();
+    }
+}
\ No newline at end of file
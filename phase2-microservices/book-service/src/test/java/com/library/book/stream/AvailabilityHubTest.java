@@ -0,0 +1,149 @@
+package com.library.book.stream;
+
+import com.library.book.dto.BookDTO;
+import com.library.book.dto.InventoryDTO;
+import com.library.book.event.BookChangeFeed;
+import com.library.book.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Real connections against the embedded server: one sender thread, so a write that blocked would stall everyone
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "library.availability.sender-threads=1",
+        "library.availability.max-pending-books=200",
+        "library.availability.heartbeat-interval=1h"})
+@ActiveProfiles("test")
+@Timeout(60)
+class AvailabilityHubTest {
+
+    private static final long WATCHED_BOOK = 990_001;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AvailabilityHub availabilityHub;
+
+    @Autowired
+    private BookChangeFeed bookChangeFeed;
+
+    @Autowired
+    private BookService bookService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<AutoCloseable> connections = new ArrayList<>();
+
+    @AfterEach
+    void closeConnections() throws Exception {
+        for (AutoCloseable connection : connections) {
+            connection.close();
+        }
+        // A closed client is only noticed when something is written to it
+        awaitTrue(() -> {
+            availabilityHub.sendHeartbeats();
+            return bookChangeFeed.stats().getSubscribers() == 0;
+        });
+    }
+
+    @Test
+    void clientThatStopsReadingHoldsNobodyElseUp() throws Exception {
+        stallingClient("/api/books/availability/stream");
+        BlockingQueue<String> events = subscribe("/api/books/availability/stream?ids=" + WATCHED_BOOK);
+        awaitTrue(() -> bookChangeFeed.stats().getSubscribers() == 2);
+
+        // Every round adds books the stalled client has never seen, so its backlog grows until it overflows
+        int rounds = 1000;
+        for (int round = 1; round <= rounds; round++) {
+            List<InventoryDTO> changes = new ArrayList<>();
+            for (int book = 0; book < 100; book++) {
+                changes.add(new InventoryDTO(1_000_000L + round * 100L + book, round));
+            }
+            changes.add(new InventoryDTO(WATCHED_BOOK, round));
+            availabilityHub.publish(changes);
+        }
+
+        String last = null;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (last == null || !last.contains("\"availableCopies\":" + rounds)) {
+            last = events.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            assertThat(last).as("latest count of the watched book").isNotNull();
+        }
+        awaitTrue(() -> bookChangeFeed.stats().getDroppedSubscribers() >= 1);
+        assertThat(bookChangeFeed.stats().getSubscribers()).isEqualTo(1);
+    }
+
+    @Test
+    void watchedBooksStartWithTheirCurrentCount() throws Exception {
+        Long id = bookService.createBook(new BookDTO(null, "Streams", "978-0000000001", "Ada Byte", null, 2021, 3))
+                .getId();
+        BlockingQueue<String> events = subscribe("/api/books/availability/stream?ids=" + id);
+
+        assertThat(events.poll(10, TimeUnit.SECONDS))
+                .isEqualTo("data:[{\"bookId\":" + id + ",\"availableCopies\":3}]");
+
+        availabilityHub.publish(List.of(new InventoryDTO(id, 2), new InventoryDTO(id + 1, 9)));
+
+        assertThat(events.poll(10, TimeUnit.SECONDS))
+                .isEqualTo("data:[{\"bookId\":" + id + ",\"availableCopies\":2}]");
+    }
+
+    // Data lines of an event stream, read on the client's own thread
+    private BlockingQueue<String> subscribe(String path) throws Exception {
+        BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("text/event-stream"));
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> response.body()
+                .filter(line -> line.startsWith("data:"))
+                .forEach(events::add));
+        connections.add(() -> {
+            reader.cancel(true);
+            response.body().close();
+        });
+        return events;
+    }
+
+    // Sends the request and never reads the response, so the server's writes back up
+    private void stallingClient(String path) throws Exception {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(1024);
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        connections.add(socket);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition within 10s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,220 @@
+package com.library.loan.cache;
+
+import reactor.core.publisher.Mono;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Read-through LRU cache bounded by size, with a TTL per entry.
+// A loader returning null (remote 404) is remembered as "absent" for the shorter negative TTL.
+// Loads run outside the lock; a key invalidated while its load was in flight keeps the loaded value out of the
+// cache, since the load may have read it before the change that caused the invalidation.
+public class ExpiringCache<K, V> {
+
+    private final int maximumSize;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Only keys with a load in flight, so it stays as small as the number of concurrent loads
+    private final Map<K, Load> loading = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(int maximumSize, Duration ttl, Duration negativeTtl) {
+        this(maximumSize, ttl, negativeTtl, Clock.systemUTC());
+    }
+
+    ExpiringCache(int maximumSize, Duration ttl, Duration negativeTtl, Clock clock) {
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.clock = clock;
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        Entry<V> entry = lookup(key);
+        if (entry != null) {
+            return entry.value;
+        }
+        // Load outside the lock so a slow remote call never blocks other readers
+        Map<K, Long> started = startLoads(Set.of(key));
+        try {
+            V value = loader.apply(key);
+            putIfNotInvalidated(key, value, started.get(key));
+            return value;
+        } finally {
+            endLoads(started.keySet());
+        }
+    }
+
+    public Map<K, V> getAll(Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = collectCached(keys, result);
+        if (!missing.isEmpty()) {
+            Map<K, Long> started = startLoads(missing);
+            try {
+                storeLoaded(started, loader.apply(missing), result);
+            } finally {
+                endLoads(missing);
+            }
+        }
+        return result;
+    }
+
+    // Same as getAll, for loaders that complete without blocking the caller
+    public Mono<Map<K, V>> getAllAsync(Collection<K> keys, Function<Set<K>, Mono<Map<K, V>>> loader) {
+        return Mono.defer(() -> {
+            Map<K, V> result = new HashMap<>();
+            Set<K> missing = collectCached(keys, result);
+            if (missing.isEmpty()) {
+                return Mono.just(result);
+            }
+            Map<K, Long> started = startLoads(missing);
+            return Mono.defer(() -> loader.apply(missing))
+                    .map(loaded -> {
+                        storeLoaded(started, loaded, result);
+                        return result;
+                    })
+                    .doFinally(signal -> endLoads(missing));
+        });
+    }
+
+    public synchronized void put(K key, V value) {
+        store(key, value);
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        Load load = loading.get(key);
+        if (load != null) {
+            load.invalidations++;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        loading.values().forEach(load -> load.invalidations++);
+    }
+
+    private void store(K key, V value) {
+        Duration entryTtl = value != null ? ttl : negativeTtl;
+        entries.put(key, new Entry<>(value, clock.millis() + entryTtl.toMillis()));
+        puts.increment();
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (entries.size() > maximumSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    // Read by ExpiringCacheMetrics
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private Set<K> collectCached(Collection<K> keys, Map<K, V> result) {
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            Entry<V> entry = lookup(key);
+            if (entry == null) {
+                missing.add(key);
+            } else if (entry.value != null) {
+                result.put(key, entry.value);
+            }
+        }
+        return missing;
+    }
+
+    private void storeLoaded(Map<K, Long> started, Map<K, V> loaded, Map<K, V> result) {
+        started.forEach((key, invalidations) -> {
+            V value = loaded.get(key);
+            putIfNotInvalidated(key, value, invalidations);
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+    }
+
+    // The invalidation count of each key as its load starts
+    private synchronized Map<K, Long> startLoads(Set<K> keys) {
+        Map<K, Long> started = new HashMap<>();
+        for (K key : keys) {
+            Load load = loading.computeIfAbsent(key, k -> new Load());
+            load.inFlight++;
+            started.put(key, load.invalidations);
+        }
+        return started;
+    }
+
+    private synchronized void putIfNotInvalidated(K key, V value, long invalidationsAtStart) {
+        Load load = loading.get(key);
+        if (load != null && load.invalidations == invalidationsAtStart) {
+            store(key, value);
+        }
+    }
+
+    private synchronized void endLoads(Set<K> keys) {
+        for (K key : keys) {
+            Load load = loading.get(key);
+            if (load != null && --load.inFlight == 0) {
+                loading.remove(key);
+            }
+        }
+    }
+
+    private synchronized Entry<V> lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= clock.millis()) {
+            entries.remove(key);
+            evictions.increment();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private static final class Load {
+        private int inFlight;
+        private long invalidations;
+    }
+}
\ No newline at end of file
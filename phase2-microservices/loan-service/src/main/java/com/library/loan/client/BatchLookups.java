@@ -0,0 +1,36 @@
+package com.library.loan.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+final class BatchLookups {
+
+    // Keeps the ids query string under the servlet container's header limit
+    static final int LOOKUP_BATCH_SIZE = 500;
+
+    private BatchLookups() {
+    }
+
+    static <T> Map<Long, T> fetchInBatches(Collection<Long> ids,
+                                           Function<Collection<Long>, List<T>> lookup,
+                                           Function<T, Long> idExtractor) {
+        Map<Long, T> result = new HashMap<>();
+        for (List<Long> batch : partition(ids)) {
+            lookup.apply(batch).forEach(item -> result.put(idExtractor.apply(item), item));
+        }
+        return result;
+    }
+
+    static List<List<Long>> partition(Collection<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < idList.size(); from += LOOKUP_BATCH_SIZE) {
+            batches.add(idList.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, idList.size())));
+        }
+        return batches;
+    }
+}
\ No newline at end of file
@@ -1,18 +1,42 @@
 package com.library.loan.client;
 
+import com.library.loan.dto.BatchReservationDTO;
 import com.library.loan.dto.BookDTO;
+import com.library.loan.dto.CopyReservationDTO;
+import com.library.loan.dto.InventoryDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import java.util.Collection;
+import java.util.List;
 
-@FeignClient(name = "book-service")
+@FeignClient(name = BookClient.SERVICE_ID)
 public interface BookClient {
 
+    String SERVICE_ID = "book-service";
+
     @GetMapping("/api/books/{id}")
     BookDTO getBookById(@PathVariable("id") Long id);
 
-    @PutMapping("/api/books/{id}")
-    BookDTO updateBook(@PathVariable("id") Long id, @RequestBody BookDTO bookDTO);
+    @GetMapping("/api/books")
+    List<BookDTO> getBooksByIds(@RequestParam("ids") Collection<Long> ids);
+
+    // Retrying either call with the same token takes or credits the copy only once
+    @PostMapping("/api/books/{id}/reserve")
+    InventoryDTO reserveCopy(@PathVariable("id") Long id, @RequestParam("token") String token);
+
+    // A null token releases a copy reserved before tokens existed
+    @PostMapping("/api/books/{id}/release")
+    InventoryDTO releaseCopy(@PathVariable("id") Long id,
+                             @RequestParam(value = "token", required = false) String token);
+
+    // All or nothing; answers 409 with the per-book outcome when any book is short
+    @PostMapping("/api/books/reserve")
+    BatchReservationDTO reserveCopies(@RequestBody List<CopyReservationDTO> copies);
+
+    @PostMapping("/api/books/release")
+    List<InventoryDTO> releaseCopies(@RequestBody List<CopyReservationDTO> copies);
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.library.loan.client;
+
+import com.library.loan.cache.ExpiringCache;
+import com.library.loan.cache.ExpiringCacheMetrics;
+import com.library.loan.dto.BookDTO;
+import com.library.loan.exception.ResourceNotFoundException;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+@Component
+public class CachingBookClient {
+
+    private final BookClient bookClient;
+    private final ReactiveLookups reactiveLookups;
+    private final ResilientCalls resilientCalls;
+    private final ExpiringCache<Long, BookDTO> cache;
+
+    public CachingBookClient(BookClient bookClient,
+                             ReactiveLookups reactiveLookups,
+                             ResilientCalls resilientCalls,
+                             MeterRegistry meterRegistry,
+                            @Value("${library.cache.books.maximum-size:10000}") int maximumSize,
+                            @Value("${library.cache.books.ttl:10m}") Duration ttl,
+                            @Value("${library.cache.books.negative-ttl:30s}") Duration negativeTtl) {
+        this.bookClient = bookClient;
+        this.reactiveLookups = reactiveLookups;
+        this.resilientCalls = resilientCalls;
+        this.cache = new ExpiringCache<>(maximumSize, ttl, negativeTtl);
+        new ExpiringCacheMetrics(cache, "books").bindTo(meterRegistry);
+    }
+
+    public BookDTO getBook(Long id) {
+        return requireBook(id, cache.get(id, this::fetchBook));
+    }
+
+    // Skips the cache for reads that must be current, refreshing the entry on the way
+    public BookDTO getBookFresh(Long id) {
+        BookDTO book = fetchBook(id);
+        cache.put(id, book);
+        return requireBook(id, book);
+    }
+
+    public Map<Long, BookDTO> getBooks(Collection<Long> ids) {
+        return cache.getAll(ids, missing ->
+                BatchLookups.fetchInBatches(missing, batch -> resilientCalls.hedgedRead(BookClient.SERVICE_ID,
+                        () -> bookClient.getBooksByIds(batch)), BookDTO::getId));
+    }
+
+    // Non-blocking variant of getBooks for the reactive read path
+    public Mono<Map<Long, BookDTO>> getBooksAsync(Collection<Long> ids) {
+        return cache.getAllAsync(ids, missing ->
+                reactiveLookups.fetchByIds(BookClient.SERVICE_ID, "/api/books", missing,
+                        BookDTO.class, BookDTO::getId));
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    private BookDTO fetchBook(Long id) {
+        try {
+            return resilientCalls.hedgedRead(BookClient.SERVICE_ID, () -> bookClient.getBookById(id));
+        } catch (FeignException.NotFound ex) {
+            return null;
+        }
+    }
+
+    private BookDTO requireBook(Long id, BookDTO book) {
+        if (book == null) {
+            throw new ResourceNotFoundException("Book not found with id: " + id);
+        }
+        return book;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.library.loan.client;
+
+import com.library.loan.cache.ExpiringCache;
+import com.library.loan.cache.ExpiringCacheMetrics;
+import com.library.loan.dto.MemberDTO;
+import com.library.loan.exception.ResourceNotFoundException;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+@Component
+public class CachingMemberClient {
+
+    private final MemberClient memberClient;
+    private final ReactiveLookups reactiveLookups;
+    private final ResilientCalls resilientCalls;
+    private final ExpiringCache<Long, MemberDTO> cache;
+
+    public CachingMemberClient(MemberClient memberClient,
+                               ReactiveLookups reactiveLookups,
+                               ResilientCalls resilientCalls,
+                               MeterRegistry meterRegistry,
+                              @Value("${library.cache.members.maximum-size:10000}") int maximumSize,
+                              @Value("${library.cache.members.ttl:10m}") Duration ttl,
+                              @Value("${library.cache.members.negative-ttl:30s}") Duration negativeTtl) {
+        this.memberClient = memberClient;
+        this.reactiveLookups = reactiveLookups;
+        this.resilientCalls = resilientCalls;
+        this.cache = new ExpiringCache<>(maximumSize, ttl, negativeTtl);
+        new ExpiringCacheMetrics(cache, "members").bindTo(meterRegistry);
+    }
+
+    public MemberDTO getMember(Long id) {
+        return requireMember(id, cache.get(id, this::fetchMember));
+    }
+
+    // Skips the cache for reads that must be current, refreshing the entry on the way
+    public MemberDTO getMemberFresh(Long id) {
+        MemberDTO member = fetchMember(id);
+        cache.put(id, member);
+        return requireMember(id, member);
+    }
+
+    public Map<Long, MemberDTO> getMembers(Collection<Long> ids) {
+        return cache.getAll(ids, missing ->
+                BatchLookups.fetchInBatches(missing, batch -> resilientCalls.hedgedRead(MemberClient.SERVICE_ID,
+                        () -> memberClient.getMembersByIds(batch)), MemberDTO::getId));
+    }
+
+    // Non-blocking variant of getMembers for the reactive read path
+    public Mono<Map<Long, MemberDTO>> getMembersAsync(Collection<Long> ids) {
+        return cache.getAllAsync(ids, missing ->
+                reactiveLookups.fetchByIds(MemberClient.SERVICE_ID, "/api/members", missing,
+                        MemberDTO.class, MemberDTO::getId));
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    private MemberDTO fetchMember(Long id) {
+        try {
+            return resilientCalls.hedgedRead(MemberClient.SERVICE_ID, () -> memberClient.getMemberById(id));
+        } catch (FeignException.NotFound ex) {
+            return null;
+        }
+    }
+
+    private MemberDTO requireMember(Long id, MemberDTO member) {
+        if (member == null) {
+            throw new ResourceNotFoundException("Member not found with id: " + id);
+        }
+        return member;
+    }
+}
\ No newline at end of file
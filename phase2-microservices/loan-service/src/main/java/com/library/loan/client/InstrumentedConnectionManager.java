@@ -0,0 +1,74 @@
+package com.library.loan.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.Timeout;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToDoubleFunction;
+
+// Connection pool behind the Feign clients, published as httpcomponents.httpclient.pool.* meters: Micrometer's
+// pool totals, plus the connections of each route and how long callers wait to lease one
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final MeterRegistry meterRegistry;
+    private final Tags tags;
+    private final Map<HttpRoute, Timer> acquireTimers = new ConcurrentHashMap<>();
+
+    public InstrumentedConnectionManager(MeterRegistry meterRegistry, String name) {
+        this.meterRegistry = meterRegistry;
+        this.tags = Tags.of("httpclient", name);
+        new PoolingHttpClientConnectionManagerMetricsBinder(this, name).bindTo(meterRegistry);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        long started = System.nanoTime();
+        LeaseRequest lease = super.lease(id, route, requestTimeout, state);
+        Timer timer = acquireTimers.computeIfAbsent(route, this::registerRoute);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                ConnectionEndpoint endpoint = lease.get(timeout);
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                return endpoint;
+            }
+
+            @Override
+            public boolean cancel() {
+                return lease.cancel();
+            }
+        };
+    }
+
+    // Routes are the downstream instances, so there are only a few of them
+    private Timer registerRoute(HttpRoute route) {
+        Tags routeTags = tags.and("route", route.getTargetHost().toURI());
+        routeGauge(route, routeTags.and("state", "leased"), PoolStats::getLeased);
+        routeGauge(route, routeTags.and("state", "available"), PoolStats::getAvailable);
+        routeGauge(route, routeTags.and("state", "pending"), PoolStats::getPending);
+        return Timer.builder("httpcomponents.httpclient.pool.acquire")
+                .description("Time a caller waited to lease a connection")
+                .tags(routeTags)
+                .register(meterRegistry);
+    }
+
+    private void routeGauge(HttpRoute route, Tags routeTags, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("httpcomponents.httpclient.pool.route.connections", this,
+                        pool -> value.applyAsDouble(pool.getStats(route)))
+                .tags(routeTags)
+                .register(meterRegistry);
+    }
+}
\ No newline at end of file
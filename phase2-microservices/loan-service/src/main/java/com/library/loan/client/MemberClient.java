@@ -4,10 +4,18 @@ import com.library.loan.dto.MemberDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import java.util.Collection;
+import java.util.List;
 
-@FeignClient(name = "member-service")
+@FeignClient(name = MemberClient.SERVICE_ID)
 public interface MemberClient {
 
+    String SERVICE_ID = "member-service";
+
     @GetMapping("/api/members/{id}")
     MemberDTO getMemberById(@PathVariable("id") Long id);
+
+    @GetMapping("/api/members")
+    List<MemberDTO> getMembersByIds(@RequestParam("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.library.loan.client;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.loan.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+// Batch lookups over the JDK's non-blocking HttpClient: no thread waits while a request is in flight,
+// only a handful of I/O threads complete responses. Instances are picked with the reactive load balancer,
+// and every request is subject to the same circuit breaker and bulkhead as the Feign calls (ResilientCalls).
+@Component
+public class ReactiveLookups implements DisposableBean {
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory;
+    private final ResilientCalls resilientCalls;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService ioThreads;
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final int concurrency;
+
+    public ReactiveLookups(ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory,
+                           ResilientCalls resilientCalls,
+                           ObjectMapper objectMapper,
+                           @Value("${library.reactive-lookups.io-threads:4}") int ioThreads,
+                           @Value("${library.reactive-lookups.concurrency:4}") int concurrency,
+                           @Value("${library.reactive-lookups.timeout:2s}") Duration timeout) {
+        this.loadBalancerFactory = loadBalancerFactory;
+        this.resilientCalls = resilientCalls;
+        this.objectMapper = objectMapper;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("reactive-lookup-");
+        threadFactory.setDaemon(true);
+        this.ioThreads = Executors.newFixedThreadPool(ioThreads, threadFactory);
+        this.httpClient = HttpClient.newBuilder()
+                .executor(this.ioThreads)
+                .connectTimeout(timeout)
+                .build();
+        this.timeout = timeout;
+        this.concurrency = concurrency;
+    }
+
+    // Splits the ids into batches and keeps at most `concurrency` of them in flight per lookup
+    public <T> Mono<Map<Long, T>> fetchByIds(String serviceId, String path, Collection<Long> ids,
+                                             Class<T> type, Function<T, Long> idExtractor) {
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, type);
+        return Flux.fromIterable(BatchLookups.partition(ids))
+                .flatMap(batch -> this.<T>get(serviceId, path, batch, listType), concurrency)
+                .flatMapIterable(items -> items)
+                .collectMap(idExtractor);
+    }
+
+    @Override
+    public void destroy() {
+        ioThreads.shutdown();
+    }
+
+    // Each batch is one call through the service's circuit breaker and bulkhead, like the Feign calls
+    private <T> Mono<List<T>> get(String serviceId, String path, List<Long> ids, JavaType listType) {
+        return resilientCalls.call(serviceId, this.<T>send(serviceId, path, ids, listType));
+    }
+
+    private <T> Mono<List<T>> send(String serviceId, String path, List<Long> ids, JavaType listType) {
+        return chooseInstance(serviceId)
+                .map(instance -> UriComponentsBuilder.fromUri(instance.getUri())
+                        .path(path)
+                        .queryParam("ids", ids)
+                        .build()
+                        .toUri())
+                .flatMap(uri -> Mono.fromFuture(() -> httpClient.sendAsync(request(uri),
+                        HttpResponse.BodyHandlers.ofByteArray())))
+                .map(response -> this.<T>decode(serviceId, response, listType))
+                .onErrorMap(HttpTimeoutException.class, ex -> new ServiceUnavailableException(
+                        serviceId + " did not answer within " + timeout.toMillis() + " ms", ex))
+                .onErrorMap(IOException.class, ex -> new ServiceUnavailableException(
+                        serviceId + " is unreachable", ex));
+    }
+
+    private Mono<ServiceInstance> chooseInstance(String serviceId) {
+        return Mono.from(loadBalancerFactory.getInstance(serviceId).choose())
+                .filter(response -> response.hasServer())
+                .map(response -> response.getServer())
+                .switchIfEmpty(Mono.error(() -> new ServiceUnavailableException(
+                        "No instance of " + serviceId + " is available")));
+    }
+
+    private HttpRequest request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private <T> List<T> decode(String serviceId, HttpResponse<byte[]> response, JavaType listType) {
+        if (response.statusCode() / 100 != 2) {
+            throw new ServiceUnavailableException(serviceId + " responded with status " + response.statusCode());
+        }
+        try {
+            return objectMapper.readValue(response.body(), listType);
+        } catch (IOException ex) {
+            throw new ServiceUnavailableException("Unreadable response from " + serviceId, ex);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.library.loan.client;
+
+import com.library.loan.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Runs independent downstream calls in parallel, each with its own timeout.
+// The executor is private to this class so it does not replace Boot's applicationTaskExecutor.
+@Component
+public class RemoteCalls implements DisposableBean {
+
+    private final TaskExecutor executor;
+    private final Duration timeout;
+
+    public RemoteCalls(Environment environment,
+                       @Value("${library.remote-calls.core-pool-size:16}") int corePoolSize,
+                       @Value("${library.remote-calls.max-pool-size:64}") int maxPoolSize,
+                       @Value("${library.remote-calls.queue-capacity:256}") int queueCapacity,
+                       @Value("${library.remote-calls.timeout:2s}") Duration timeout) {
+        this.executor = Threading.VIRTUAL.isActive(environment)
+                ? virtualThreadExecutor("remote-call-", maxPoolSize)
+                : platformThreadPool("remote-call-", corePoolSize, maxPoolSize, queueCapacity);
+        this.timeout = timeout;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, executor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            throw new ServiceUnavailableException("Too many downstream calls in flight", ex);
+        }
+    }
+
+    // Waits for every call, but rethrows the first failure as soon as it happens
+    public void awaitAll(CompletableFuture<?>... calls) {
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        for (CompletableFuture<?> call : calls) {
+            call.whenComplete((result, ex) -> {
+                if (ex != null) {
+                    outcome.completeExceptionally(ex);
+                }
+            });
+        }
+        CompletableFuture.allOf(calls).whenComplete((result, ex) -> outcome.complete(null));
+
+        try {
+            outcome.join();
+        } catch (CompletionException ex) {
+            for (CompletableFuture<?> call : calls) {
+                call.cancel(false);
+            }
+            throw unwrap(ex);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        shutdown(executor);
+    }
+
+    // Bounded pool; a full queue rejects instead of piling up blocked callers
+    static TaskExecutor platformThreadPool(String threadNamePrefix, int corePoolSize, int maxPoolSize,
+                                           int queueCapacity) {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(corePoolSize);
+        pool.setMaxPoolSize(maxPoolSize);
+        pool.setQueueCapacity(queueCapacity);
+        pool.setThreadNamePrefix(threadNamePrefix);
+        pool.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        pool.initialize();
+        return pool;
+    }
+
+    // One virtual thread per call, still capped so a slow downstream cannot absorb unbounded work
+    static TaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor virtualThreads = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        virtualThreads.setVirtualThreads(true);
+        virtualThreads.setConcurrencyLimit(concurrencyLimit);
+        return virtualThreads;
+    }
+
+    static void shutdown(TaskExecutor executor) {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor virtualThreads) {
+            virtualThreads.close();
+        }
+    }
+
+    private RuntimeException unwrap(CompletionException ex) {
+        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof TimeoutException) {
+            return new ServiceUnavailableException("Downstream call timed out after " + timeout.toMillis() + " ms", cause);
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new ServiceUnavailableException("Downstream call failed", cause);
+    }
+}
\ No newline at end of file
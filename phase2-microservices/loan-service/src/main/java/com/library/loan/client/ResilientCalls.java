@@ -0,0 +1,242 @@
+package com.library.loan.client;
+
+import com.library.loan.dto.ResilienceStatsDTO;
+import com.library.loan.exception.ServiceUnavailableException;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+// Every Feign call and reactive lookup to a downstream goes through its circuit breaker and bulkhead (both named after the service,
+// configured under resilience4j.* in loan-service.yml). Rejected, timed-out and 5xx calls surface as 503.
+@Component
+public class ResilientCalls implements DisposableBean {
+
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final TaskExecutor hedgeExecutor;
+    private final boolean hedgingEnabled;
+    private final double hedgePercentile;
+    private final Duration minHedgeDelay;
+    private final Duration maxHedgeDelay;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> hedgedReads = new ConcurrentHashMap<>();
+
+    public ResilientCalls(CircuitBreakerRegistry circuitBreakerRegistry,
+                          BulkheadRegistry bulkheadRegistry,
+                          Environment environment,
+                          @Value("${library.resilience.hedging.enabled:false}") boolean hedgingEnabled,
+                          @Value("${library.resilience.hedging.percentile:0.95}") double hedgePercentile,
+                          @Value("${library.resilience.hedging.min-delay:20ms}") Duration minHedgeDelay,
+                          @Value("${library.resilience.hedging.max-delay:500ms}") Duration maxHedgeDelay,
+                          @Value("${library.resilience.hedging.max-pool-size:32}") int hedgePoolSize) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        // No queue: when every hedging thread is busy the read simply runs unhedged on the caller
+        this.hedgeExecutor = Threading.VIRTUAL.isActive(environment)
+                ? RemoteCalls.virtualThreadExecutor("hedged-read-", hedgePoolSize)
+                : RemoteCalls.platformThreadPool("hedged-read-", Math.min(8, hedgePoolSize), hedgePoolSize, 0);
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.minHedgeDelay = minHedgeDelay;
+        this.maxHedgeDelay = maxHedgeDelay;
+    }
+
+    public <T> T call(String serviceId, Supplier<T> call) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(serviceId);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(serviceId);
+        // Bulkhead outermost, so calls it turns away never count as circuit breaker failures
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, call));
+
+        long started = System.nanoTime();
+        try {
+            T result = guarded.get();
+            latency(serviceId).record(System.nanoTime() - started);
+            return result;
+        } catch (CallNotPermittedException ex) {
+            throw new ServiceUnavailableException(serviceId + " is unavailable, circuit breaker is open", ex);
+        } catch (BulkheadFullException ex) {
+            throw new ServiceUnavailableException("Too many calls in flight to " + serviceId, ex);
+        } catch (RetryableException ex) {
+            throw new ServiceUnavailableException(serviceId + " did not respond in time", ex);
+        } catch (FeignException.FeignServerException ex) {
+            throw new ServiceUnavailableException(serviceId + " failed with status " + ex.status(), ex);
+        }
+    }
+
+    // The same policies for a reactive call. The bulkhead permit is held until the Mono completes, not just while
+    // it is assembled, and a rejected call is never subscribed, so it sends nothing
+    public <T> Mono<T> call(String serviceId, Mono<T> call) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(serviceId);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(serviceId);
+        return Mono.defer(() -> {
+                    long started = System.nanoTime();
+                    return call.doOnSuccess(result -> latency(serviceId).record(System.nanoTime() - started));
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorMap(CallNotPermittedException.class, ex -> new ServiceUnavailableException(
+                        serviceId + " is unavailable, circuit breaker is open", ex))
+                .onErrorMap(BulkheadFullException.class, ex -> new ServiceUnavailableException(
+                        "Too many calls in flight to " + serviceId, ex));
+    }
+
+    // Idempotent reads only. If the first attempt is slower than the service's usual p95, a second one is sent;
+    // the load balancer's round robin routes it to the next instance. The first success wins.
+    public <T> T hedgedRead(String serviceId, Supplier<T> read) {
+        if (!hedgingEnabled) {
+            return call(serviceId, read);
+        }
+
+        CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(() -> call(serviceId, read), hedgeExecutor);
+        } catch (RejectedExecutionException ex) {
+            return call(serviceId, read);
+        }
+
+        try {
+            return primary.get(hedgeDelay(serviceId).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // Slow first attempt: hedge below
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for " + serviceId, ex);
+        }
+
+        CompletableFuture<T> hedge;
+        try {
+            hedge = CompletableFuture.supplyAsync(() -> call(serviceId, read), hedgeExecutor);
+            hedgedReads.computeIfAbsent(serviceId, id -> new LongAdder()).increment();
+        } catch (RejectedExecutionException ex) {
+            hedge = primary;
+        }
+
+        try {
+            return firstSuccess(primary, hedge).join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    public List<ResilienceStatsDTO> stats(String... serviceIds) {
+        return Arrays.stream(serviceIds).map(serviceId -> {
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(serviceId);
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead(serviceId);
+            LongAdder hedged = hedgedReads.get(serviceId);
+            return new ResilienceStatsDTO(serviceId,
+                    circuitBreaker.getState().name(),
+                    circuitBreaker.getMetrics().getFailureRate(),
+                    circuitBreaker.getMetrics().getSlowCallRate(),
+                    circuitBreaker.getMetrics().getNumberOfNotPermittedCalls(),
+                    bulkhead.getMetrics().getAvailableConcurrentCalls(),
+                    bulkhead.getMetrics().getMaxAllowedConcurrentCalls(),
+                    hedgingEnabled ? hedgeDelay(serviceId).toMillis() : null,
+                    hedged != null ? hedged.sum() : 0L);
+        }).toList();
+    }
+
+    @Override
+    public void destroy() {
+        RemoteCalls.shutdown(hedgeExecutor);
+    }
+
+    private Duration hedgeDelay(String serviceId) {
+        long percentile = latency(serviceId).percentile(hedgePercentile);
+        if (percentile < 0) {
+            return maxHedgeDelay;
+        }
+        Duration delay = Duration.ofNanos(percentile);
+        if (delay.compareTo(minHedgeDelay) < 0) {
+            return minHedgeDelay;
+        }
+        return delay.compareTo(maxHedgeDelay) > 0 ? maxHedgeDelay : delay;
+    }
+
+    private LatencyWindow latency(String serviceId) {
+        return latencies.computeIfAbsent(serviceId, id -> new LatencyWindow());
+    }
+
+    // Fails only once both attempts have failed
+    private static <T> CompletableFuture<T> firstSuccess(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+        if (primary == hedge) {
+            return primary;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<T, Throwable> onComplete = (value, ex) -> {
+            if (ex == null) {
+                result.complete(value);
+            } else if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(ex);
+            }
+        };
+        primary.whenComplete(onComplete);
+        hedge.whenComplete(onComplete);
+        return result;
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new ServiceUnavailableException("Downstream call failed", cause);
+    }
+
+    // Latencies of the last successful calls, enough for a stable p95 without a metrics library
+    private static final class LatencyWindow {
+        private final long[] samples = new long[256];
+        private int next;
+        private int count;
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized long percentile(double percentile) {
+            if (count < MIN_LATENCY_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(percentile * count) - 1];
+        }
+    }
+}
\ No newline at end of file
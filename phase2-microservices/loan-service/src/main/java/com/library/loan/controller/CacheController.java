@@ -0,0 +1,34 @@
+package com.library.loan.controller;
+
+import com.library.loan.client.CachingBookClient;
+import com.library.loan.client.CachingMemberClient;
+import com.library.loan.service.LoanViewService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/loans/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CachingBookClient cachingBookClient;
+    private final CachingMemberClient cachingMemberClient;
+    private final LoanViewService loanViewService;
+
+    // Manual repair: drop the cached copy and refresh the read-model snapshot.
+    // Change events from Book Service and Member Service normally do this through /api/loans/events.
+    @DeleteMapping("/books/{id}")
+    public ResponseEntity<Void> evictBook(@PathVariable Long id) {
+        cachingBookClient.evict(id);
+        loanViewService.refreshBook(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/members/{id}")
+    public ResponseEntity<Void> evictMember(@PathVariable Long id) {
+        cachingMemberClient.evict(id);
+        loanViewService.refreshMember(id);
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.library.loan.controller;
+
+import com.library.common.outbox.ChangeEventDTO;
+import com.library.loan.service.ChangeEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/loans/events")
+@RequiredArgsConstructor
+public class ChangeEventController {
+
+    private final ChangeEventService changeEventService;
+
+    // Called by the outbox relays of Book Service and Member Service
+    @PostMapping
+    public ResponseEntity<Void> receiveEvents(@RequestBody List<ChangeEventDTO> events) {
+        changeEventService.apply(events);
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.library.loan.controller;
+
+import com.library.loan.dto.HoldDTO;
+import com.library.loan.dto.HoldResponseDTO;
+import com.library.loan.service.HoldService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/loans/holds")
+@RequiredArgsConstructor
+public class HoldController {
+
+    private final HoldService holdService;
+
+    @PostMapping
+    public ResponseEntity<HoldResponseDTO> placeHold(@Valid @RequestBody HoldDTO holdDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(holdService.placeHold(holdDTO));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<HoldResponseDTO> getHoldById(@PathVariable Long id) {
+        return ResponseEntity.ok(holdService.getHoldById(id));
+    }
+
+    @GetMapping("/book/{bookId}")
+    public ResponseEntity<List<HoldResponseDTO>> getHoldsByBook(@PathVariable Long bookId) {
+        return ResponseEntity.ok(holdService.getHoldsByBookId(bookId));
+    }
+
+    @GetMapping("/member/{memberId}")
+    public ResponseEntity<List<HoldResponseDTO>> getHoldsByMember(@PathVariable Long memberId) {
+        return ResponseEntity.ok(holdService.getHoldsByMemberId(memberId));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelHold(@PathVariable Long id) {
+        holdService.cancelHold(id);
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
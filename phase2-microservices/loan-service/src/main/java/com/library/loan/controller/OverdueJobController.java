@@ -0,0 +1,21 @@
+package com.library.loan.controller;
+
+import com.library.loan.scheduler.OverdueLoanJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/loans/overdue-job")
+@RequiredArgsConstructor
+public class OverdueJobController {
+
+    private final OverdueLoanJob overdueLoanJob;
+
+    // Runs the job now; a no-op when another node holds the lease. The run shows up in the library.job.* metrics
+    @PostMapping("/run")
+    public ResponseEntity<Void> run() {
+        overdueLoanJob.run();
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.library.loan.controller;
+
+import com.library.loan.dto.LoanResponseDTO;
+import com.library.loan.service.ReactiveLoanService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Spring MVC serves Mono/Flux through async requests, so the servlet thread is released while lookups are in flight.
+// Send "Accept: application/x-ndjson" to stream a Flux with backpressure instead of collecting it into one array.
+@RestController
+@RequestMapping("/api/loans/reactive")
+@RequiredArgsConstructor
+public class ReactiveLoanController {
+
+    private final ReactiveLoanService reactiveLoanService;
+
+    @GetMapping
+    public Flux<LoanResponseDTO> getAllLoans() {
+        return reactiveLoanService.getAllLoans();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<LoanResponseDTO> getLoanById(@PathVariable Long id) {
+        return reactiveLoanService.getLoanById(id);
+    }
+
+    @GetMapping("/member/{memberId}")
+    public Flux<LoanResponseDTO> getLoansByMember(@PathVariable Long memberId) {
+        return reactiveLoanService.getLoansByMemberId(memberId);
+    }
+
+    @GetMapping("/book/{bookId}")
+    public Flux<LoanResponseDTO> getLoansByBook(@PathVariable Long bookId) {
+        return reactiveLoanService.getLoansByBookId(bookId);
+    }
+}
\ No newline at end of file
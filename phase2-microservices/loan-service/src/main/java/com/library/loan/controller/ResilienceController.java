@@ -0,0 +1,23 @@
+package com.library.loan.controller;
+
+import com.library.loan.client.BookClient;
+import com.library.loan.client.MemberClient;
+import com.library.loan.client.ResilientCalls;
+import com.library.loan.dto.ResilienceStatsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/loans/resilience")
+@RequiredArgsConstructor
+public class ResilienceController {
+
+    private final ResilientCalls resilientCalls;
+
+    @GetMapping
+    public ResponseEntity<List<ResilienceStatsDTO>> getStats() {
+        return ResponseEntity.ok(resilientCalls.stats(BookClient.SERVICE_ID, MemberClient.SERVICE_ID));
+    }
+}
\ No newline at end of file
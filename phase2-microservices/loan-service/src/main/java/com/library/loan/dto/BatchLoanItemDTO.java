@@ -0,0 +1,16 @@
+package com.library.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLoanItemDTO {
+    private Long bookId;
+    // CREATED, or why the cart was refused: UNAVAILABLE, NOT_FOUND, or AVAILABLE for books that were fine on their own
+    private String status;
+    private LoanResponseDTO loan;
+    private String message;
+}
\ No newline at end of file
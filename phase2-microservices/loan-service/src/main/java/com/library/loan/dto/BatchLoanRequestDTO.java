@@ -0,0 +1,28 @@
+package com.library.loan.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLoanRequestDTO {
+    @NotNull(message = "Member ID is required")
+    private Long memberId;
+
+    @NotEmpty(message = "At least one book ID is required")
+    @Size(max = 20, message = "At most 20 books can be checked out at once")
+    private List<@NotNull(message = "Book ID is required") Long> bookIds;
+
+    @NotNull(message = "Loan date is required")
+    @PastOrPresent(message = "Loan date cannot be in the future")
+    private LocalDate loanDate;
+
+    @NotNull(message = "Due date is required")
+    @Future(message = "Due date must be in the future")
+    private LocalDate dueDate;
+}
\ No newline at end of file
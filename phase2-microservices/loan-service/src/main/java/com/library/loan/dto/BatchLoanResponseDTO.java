@@ -0,0 +1,14 @@
+package com.library.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLoanResponseDTO {
+    private boolean created;
+    private List<BatchLoanItemDTO> items;
+}
\ No newline at end of file
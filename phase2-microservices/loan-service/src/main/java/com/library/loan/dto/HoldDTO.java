@@ -0,0 +1,20 @@
+package com.library.loan.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldDTO {
+    @NotNull(message = "Book ID is required")
+    private Long bookId;
+
+    @NotNull(message = "Member ID is required")
+    private Long memberId;
+
+    // priority or standard (default)
+    private String tier;
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.library.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldResponseDTO {
+    private Long id;
+    private Long bookId;
+    private Long memberId;
+    private String tier;
+    private String status;
+    // 1 for the next holder to be served; only set while the hold is waiting
+    private Integer position;
+    private LocalDateTime createdAt;
+    private LocalDateTime readyAt;
+    private LocalDateTime expiresAt;
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.library.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryDTO {
+    private Long bookId;
+    private Integer availableCopies;
+}
\ No newline at end of file
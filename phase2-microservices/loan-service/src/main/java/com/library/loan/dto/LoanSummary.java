@@ -0,0 +1,15 @@
+package com.library.loan.dto;
+
+import com.library.loan.entity.Loan;
+import java.time.LocalDate;
+
+// Spring Data projection of the loans table alone, used for ?expand=none
+public interface LoanSummary {
+    Long getId();
+    Long getBookId();
+    Long getMemberId();
+    LocalDate getLoanDate();
+    LocalDate getDueDate();
+    LocalDate getReturnDate();
+    Loan.LoanStatus getStatus();
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.library.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResilienceStatsDTO {
+    private String service;
+    private String circuitState;
+    private float failureRate;
+    private float slowCallRate;
+    private long notPermittedCalls;
+    private int availableConcurrentCalls;
+    private int maxConcurrentCalls;
+    private Long hedgeDelayMs;
+    private long hedgedReads;
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.library.loan.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// A member waiting for a book with no copies left. The WAITING holds of a book are served by tier, then first come
+// first served; a returned copy goes to the head of that queue, whose hold turns READY and keeps the copy
+// out of Book Service's count until it is checked out or its pickup deadline passes.
+@Entity
+@Table(name = "holds")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Hold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    @Column(nullable = false)
+    private Long memberId;
+
+    // Stored as its ordinal, which is the queue order: add new tiers where they rank, never reorder existing ones
+    @Enumerated(EnumType.ORDINAL)
+    @Column(nullable = false)
+    private Tier tier;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private HoldStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime readyAt;
+
+    // Pickup deadline of a READY hold
+    private LocalDateTime expiresAt;
+
+    // Book Service reservation of the copy a READY hold keeps; the loan that fulfils the hold takes it over
+    @Column(length = 36)
+    private String reservationToken;
+
+    public enum Tier {
+        PRIORITY, STANDARD
+    }
+
+    public enum HoldStatus {
+        WAITING, READY, FULFILLED, CANCELLED, EXPIRED
+    }
+}
\ No newline at end of file
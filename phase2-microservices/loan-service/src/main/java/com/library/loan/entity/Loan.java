@@ -33,6 +33,10 @@ public class Loan {
     @Enumerated(EnumType.STRING)
     private LoanStatus status;
 
+    // Book Service reservation of the copy on loan; passed on to the hold the copy goes to on return
+    @Column(length = 36)
+    private String reservationToken;
+
     public enum LoanStatus {
         ACTIVE, RETURNED, OVERDUE
     }
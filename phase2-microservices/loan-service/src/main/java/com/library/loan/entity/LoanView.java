@@ -0,0 +1,50 @@
+package com.library.loan.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+// Read model behind GET /api/loans: the loan columns plus snapshots of the book and member fields
+// the listings display. Loan columns are written in the same transaction as the loan itself;
+// the snapshots are refreshed when Book Service or Member Service report a change.
+@Entity
+@Table(name = "loan_views")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanView {
+    // Same id as the loan, not generated
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    @Column(nullable = false)
+    private Long memberId;
+
+    @Column(nullable = false)
+    private LocalDate loanDate;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    private LocalDate returnDate;
+
+    @Enumerated(EnumType.STRING)
+    private Loan.LoanStatus status;
+
+    private String bookTitle;
+
+    private String bookIsbn;
+
+    private String bookAuthor;
+
+    private String memberFirstName;
+
+    private String memberLastName;
+
+    private String memberEmail;
+}
\ No newline at end of file
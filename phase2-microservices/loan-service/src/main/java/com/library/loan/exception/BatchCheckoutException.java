@@ -0,0 +1,17 @@
+package com.library.loan.exception;
+
+import com.library.loan.dto.BatchLoanResponseDTO;
+
+// Thrown when a cart cannot be checked out as a whole; carries the per-book outcome for the response
+public class BatchCheckoutException extends RuntimeException {
+    private final BatchLoanResponseDTO response;
+
+    public BatchCheckoutException(BatchLoanResponseDTO response) {
+        super("Not every book in the cart could be checked out");
+        this.response = response;
+    }
+
+    public BatchLoanResponseDTO getResponse() {
+        return response;
+    }
+}
\ No newline at end of file
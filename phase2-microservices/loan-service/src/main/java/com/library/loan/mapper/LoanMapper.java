@@ -1,11 +1,18 @@
 package com.library.loan.mapper;
 
+import com.library.common.export.LoanExportRow;
+import com.library.loan.dto.BookDTO;
 import com.library.loan.dto.LoanDTO;
+import com.library.loan.dto.LoanResponseDTO;
+import com.library.loan.dto.MemberDTO;
 import com.library.loan.entity.Loan;
+import com.library.loan.entity.LoanView;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
 
 @Mapper(componentModel = "spring",
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -15,8 +22,34 @@ public interface LoanMapper {
     LoanDTO toDTO(Loan loan);
 
     @Mapping(target = "status", expression = "java(loanDTO.getStatus() != null ? com.library.loan.entity.Loan.LoanStatus.valueOf(loanDTO.getStatus()) : null)")
+    @Mapping(target = "reservationToken", ignore = true)
     Loan toEntity(LoanDTO loanDTO);
 
     @Mapping(target = "status", expression = "java(loanDTO.getStatus() != null ? com.library.loan.entity.Loan.LoanStatus.valueOf(loanDTO.getStatus()) : null)")
+    @Mapping(target = "reservationToken", ignore = true)
     void updateEntityFromDTO(LoanDTO loanDTO, @MappingTarget Loan loan);
+
+    @Mapping(target = "id", source = "loan.id")
+    @Mapping(target = "status", expression = "java(loan.getStatus() != null ? loan.getStatus().name() : null)")
+    @Mapping(target = "book", source = "book")
+    @Mapping(target = "member", source = "member")
+    LoanResponseDTO toResponseDTO(Loan loan, BookDTO book, MemberDTO member);
+
+    // Loan columns only; the book and member snapshots are maintained separately
+    @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+    void updateViewFromLoan(Loan loan, @MappingTarget LoanView view);
+
+    // The embedded book and member carry the snapshot fields only
+    @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+    @Mapping(target = "book.id", source = "bookId")
+    @Mapping(target = "book.title", source = "bookTitle")
+    @Mapping(target = "book.isbn", source = "bookIsbn")
+    @Mapping(target = "book.author", source = "bookAuthor")
+    @Mapping(target = "member.id", source = "memberId")
+    @Mapping(target = "member.firstName", source = "memberFirstName")
+    @Mapping(target = "member.lastName", source = "memberLastName")
+    @Mapping(target = "member.email", source = "memberEmail")
+    LoanResponseDTO toResponseDTO(LoanView view);
+
+    LoanExportRow toExportRow(LoanView view);
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.library.loan.repository;
+
+import com.library.loan.entity.Hold;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    // First entry of idx_holds_book_queue, locked for the promotion. SKIP LOCKED lets two returns of the same book
+    // promote the first two holders side by side instead of the second one waiting on the first row.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select h from Hold h where h.bookId = :bookId and h.status = :status order by h.tier, h.id")
+    List<Hold> lockQueueHead(@Param("bookId") Long bookId, @Param("status") Hold.HoldStatus status, Limit limit);
+
+    // Holds ahead of one in its book's queue: a range of idx_holds_book_queue, counted without reading the rows
+    @Query("select count(h) from Hold h where h.bookId = :bookId and h.status = :status " +
+            "and (h.tier < :tier or (h.tier = :tier and h.id < :id))")
+    long countAhead(@Param("bookId") Long bookId, @Param("status") Hold.HoldStatus status,
+                    @Param("tier") Hold.Tier tier, @Param("id") Long id);
+
+    List<Hold> findByBookIdAndStatusOrderByTierAscIdAsc(Long bookId, Hold.HoldStatus status);
+
+    List<Hold> findByMemberIdAndStatusInOrderByIdAsc(Long memberId, Collection<Hold.HoldStatus> statuses);
+
+    // Re-checks the status, so a hold that changed since it was read is left alone
+    @Modifying
+    @Query("update Hold h set h.status = :to where h.id = :id and h.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") Hold.HoldStatus from, @Param("to") Hold.HoldStatus to);
+
+    @Query("select h from Hold h where h.bookId = :bookId and h.memberId = :memberId " +
+            "and h.status = :status and h.expiresAt > :now")
+    List<Hold> findReady(@Param("bookId") Long bookId, @Param("memberId") Long memberId,
+                         @Param("status") Hold.HoldStatus status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Hold h set h.status = :to where h.id = :id and h.status = :from and h.expiresAt <= :now")
+    int expire(@Param("id") Long id, @Param("from") Hold.HoldStatus from, @Param("to") Hold.HoldStatus to,
+               @Param("now") LocalDateTime now);
+
+    // Walks idx_holds_status_expires_at
+    @Query("select h from Hold h where h.status = :status and h.expiresAt <= :now order by h.expiresAt, h.id")
+    List<Hold> findExpired(@Param("status") Hold.HoldStatus status, @Param("now") LocalDateTime now, Limit limit);
+}
\ No newline at end of file
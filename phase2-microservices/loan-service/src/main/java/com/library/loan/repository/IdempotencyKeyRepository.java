@@ -0,0 +1,46 @@
+package com.library.loan.repository;
+
+import com.library.loan.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // A plain insert, so two requests racing for the same key end in a duplicate-key error for one of them
+    @Modifying
+    @Query(value = "insert into idempotency_keys (idempotency_key, request_hash, status, created_at, expires_at) " +
+            "values (:key, :requestHash, 'IN_PROGRESS', :now, :expiresAt)", nativeQuery = true)
+    void insertClaim(@Param("key") String key, @Param("requestHash") String requestHash,
+                     @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Takes over a claim whose owner died mid-request; the createdAt check lets only one taker win
+    @Modifying
+    @Query("update IdempotencyKey k set k.createdAt = :now " +
+            "where k.idempotencyKey = :key and k.status = :status and k.createdAt = :seenCreatedAt")
+    int takeOverClaim(@Param("key") String key, @Param("status") IdempotencyKey.Status status,
+                      @Param("seenCreatedAt") LocalDateTime seenCreatedAt, @Param("now") LocalDateTime now);
+
+    // Runs inside the action's transaction, so it must not clear the persistence context
+    @Modifying
+    @Query("update IdempotencyKey k set k.status = :status, k.responseBody = :responseBody " +
+            "where k.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("status") IdempotencyKey.Status status,
+                 @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.idempotencyKey = :key and k.status = :status")
+    int deleteByKeyAndStatus(@Param("key") String key, @Param("status") IdempotencyKey.Status status);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.idempotencyKey = :key and k.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.library.loan.repository;
+
+import com.library.loan.entity.Loan;
+import com.library.loan.entity.LoanView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+
+// JDBC batch inserts for multi-book checkouts. Hibernate cannot batch IDENTITY inserts, so these bypass it;
+// they run on the connection of the surrounding JPA transaction. With rewriteBatchedStatements=true the driver
+// sends each batch as one multi-row insert.
+@Repository
+@RequiredArgsConstructor
+public class LoanBatchRepository {
+
+    private static final String INSERT_LOAN = "insert into loans (book_id, member_id, loan_date, due_date, status, " +
+            "reservation_token) values (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_VIEW = "insert into loan_views (id, book_id, member_id, loan_date, due_date, " +
+            "return_date, status, book_title, book_isbn, book_author, member_first_name, member_last_name, " +
+            "member_email) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Sets the generated ids on the loans, in insert order
+    public void insertLoans(List<Loan> loans) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_LOAN, Statement.RETURN_GENERATED_KEYS)) {
+                for (Loan loan : loans) {
+                    insert.setLong(1, loan.getBookId());
+                    insert.setLong(2, loan.getMemberId());
+                    insert.setDate(3, Date.valueOf(loan.getLoanDate()));
+                    insert.setDate(4, Date.valueOf(loan.getDueDate()));
+                    insert.setString(5, loan.getStatus().name());
+                    insert.setString(6, loan.getReservationToken());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    for (Loan loan : loans) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Driver returned fewer ids than loans inserted");
+                        }
+                        loan.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    public void insertViews(List<LoanView> views) {
+        jdbcTemplate.batchUpdate(INSERT_VIEW, views, views.size(), (insert, view) -> {
+            insert.setLong(1, view.getId());
+            insert.setLong(2, view.getBookId());
+            insert.setLong(3, view.getMemberId());
+            insert.setDate(4, Date.valueOf(view.getLoanDate()));
+            insert.setDate(5, Date.valueOf(view.getDueDate()));
+            setDate(insert, 6, view.getReturnDate());
+            insert.setString(7, view.getStatus().name());
+            insert.setString(8, view.getBookTitle());
+            insert.setString(9, view.getBookIsbn());
+            insert.setString(10, view.getBookAuthor());
+            insert.setString(11, view.getMemberFirstName());
+            insert.setString(12, view.getMemberLastName());
+            insert.setString(13, view.getMemberEmail());
+        });
+    }
+
+    private static void setDate(PreparedStatement statement, int index, LocalDate date) throws SQLException {
+        if (date == null) {
+            statement.setNull(index, Types.DATE);
+        } else {
+            statement.setDate(index, Date.valueOf(date));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.library.loan.repository;
+
+import com.library.loan.entity.Loan;
+import com.library.loan.entity.LoanView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface LoanViewRepository extends JpaRepository<LoanView, Long> {
+    List<LoanView> findByMemberId(Long memberId);
+    List<LoanView> findByBookId(Long bookId);
+
+    List<LoanView> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select v from LoanView v order by v.id")
+    Stream<LoanView> streamAll();
+
+    // Export scan over idx_loan_views_loan_date; the id rides along in the index, so no sort is needed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select v from LoanView v where v.loanDate >= :from and v.loanDate <= :to " +
+            "and (:status is null or v.status = :status) order by v.loanDate, v.id")
+    Stream<LoanView> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                     @Param("status") Loan.LoanStatus status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update LoanView v set v.bookTitle = :title, v.bookIsbn = :isbn, v.bookAuthor = :author " +
+            "where v.bookId = :bookId")
+    int updateBookSnapshot(@Param("bookId") Long bookId, @Param("title") String title,
+                           @Param("isbn") String isbn, @Param("author") String author);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update LoanView v set v.memberFirstName = :firstName, v.memberLastName = :lastName, " +
+            "v.memberEmail = :email where v.memberId = :memberId")
+    int updateMemberSnapshot(@Param("memberId") Long memberId, @Param("firstName") String firstName,
+                             @Param("lastName") String lastName, @Param("email") String email);
+
+    // Mirrors LoanRepository.updateStatus for the overdue job
+    @Modifying
+    @Query("update LoanView v set v.status = :to where v.id in :ids and v.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") Loan.LoanStatus from,
+                     @Param("to") Loan.LoanStatus to);
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.library.loan.repository;
+
+import java.time.LocalDate;
+
+public interface OverdueCandidate {
+    Long getId();
+    LocalDate getDueDate();
+}
\ No newline at end of file
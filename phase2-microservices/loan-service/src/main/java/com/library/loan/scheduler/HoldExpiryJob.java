@@ -0,0 +1,58 @@
+package com.library.loan.scheduler;
+
+import com.library.loan.entity.Hold;
+import com.library.loan.repository.HoldRepository;
+import com.library.loan.service.HoldService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Ready holds whose pickup deadline has passed, read in chunks; each one passes its copy to the next holder
+// or back to Book Service in its own transaction (HoldService.expireHold)
+@Slf4j
+@Component
+public class HoldExpiryJob {
+
+    private final HoldRepository holdRepository;
+    private final HoldService holdService;
+    private final int chunkSize;
+
+    public HoldExpiryJob(HoldRepository holdRepository,
+                         HoldService holdService,
+                         @Value("${library.holds.expiry-chunk-size:500}") int chunkSize) {
+        this.holdRepository = holdRepository;
+        this.holdService = holdService;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${library.holds.expiry-sweep-interval:1m}")
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        while (true) {
+            List<Hold> chunk = holdRepository.findExpired(Hold.HoldStatus.READY, now, Limit.of(chunkSize));
+            for (Hold hold : chunk) {
+                try {
+                    if (holdService.expireHold(hold)) {
+                        expired++;
+                    }
+                } catch (RuntimeException ex) {
+                    // Most likely Book Service is unreachable; the hold is still READY and the next sweep retries it
+                    log.warn("Hold expiry stopped at hold {} after {} holds: {}", hold.getId(), expired,
+                            ex.getMessage());
+                    return;
+                }
+            }
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        if (expired > 0) {
+            log.info("Expired {} holds past their pickup deadline", expired);
+        }
+    }
+}
\ No newline at end of file
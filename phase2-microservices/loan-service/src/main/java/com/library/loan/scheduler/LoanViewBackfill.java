@@ -0,0 +1,63 @@
+package com.library.loan.scheduler;
+
+import com.library.common.scheduling.JobCheckpoint;
+import com.library.common.scheduling.LeasedChunkJob;
+import com.library.loan.repository.LoanRepository;
+import com.library.loan.service.LoanViewService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Duration;
+import java.util.List;
+
+// Creates the loan_views rows of loans written before the read model existed. Loans written since get their view
+// in the same transaction, so the job keeps the last loan id it checked in scheduled_jobs and each pass only
+// looks at loans added after it. Only the replica holding the lease runs a pass.
+@Component
+public class LoanViewBackfill extends LeasedChunkJob {
+
+    private static final String JOB_NAME = "loan-view-backfill";
+
+    private final LoanRepository loanRepository;
+    private final LoanViewService loanViewService;
+
+    public LoanViewBackfill(LoanRepository loanRepository,
+                            LoanViewService loanViewService,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${library.read-model.backfill-chunk-size:500}") int chunkSize,
+                            @Value("${library.read-model.backfill-lock-at-most-for:10m}") Duration lockAtMostFor) {
+        super(JOB_NAME, jdbcTemplate, transactionManager, meterRegistry, chunkSize, lockAtMostFor);
+        this.loanRepository = loanRepository;
+        this.loanViewService = loanViewService;
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${library.read-model.backfill-initial-delay:5s}",
+            fixedDelayString = "${library.read-model.backfill-interval:5m}")
+    public void run() {
+        super.run();
+    }
+
+    @Override
+    protected boolean keepsCheckpoint() {
+        return true;
+    }
+
+    @Override
+    protected List<JobCheckpoint> nextChunk(JobCheckpoint after, int limit) {
+        return loanRepository.findIdsAfter(after == null ? 0L : after.id(), Limit.of(limit)).stream()
+                .map(id -> new JobCheckpoint(null, id))
+                .toList();
+    }
+
+    @Override
+    protected int process(List<JobCheckpoint> chunk) {
+        return loanViewService.backfill(chunk.stream().map(JobCheckpoint::id).toList());
+    }
+}
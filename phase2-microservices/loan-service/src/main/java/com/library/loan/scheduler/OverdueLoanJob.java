@@ -0,0 +1,66 @@
+package com.library.loan.scheduler;
+
+import com.library.common.scheduling.JobCheckpoint;
+import com.library.common.scheduling.LeasedChunkJob;
+import com.library.loan.entity.Loan;
+import com.library.loan.repository.LoanRepository;
+import com.library.loan.repository.LoanViewRepository;
+import com.library.loan.repository.OverdueCandidate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+// Flips ACTIVE loans past their due date to OVERDUE in chunks of one short transaction each.
+// Every replica schedules it; the lease row in scheduled_jobs lets only one of them do the work.
+@Component
+public class OverdueLoanJob extends LeasedChunkJob {
+
+    private static final String JOB_NAME = "overdue-loans";
+
+    private final LoanRepository loanRepository;
+    private final LoanViewRepository loanViewRepository;
+
+    public OverdueLoanJob(LoanRepository loanRepository,
+                          LoanViewRepository loanViewRepository,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${library.overdue-job.chunk-size:500}") int chunkSize,
+                          @Value("${library.overdue-job.lock-at-most-for:10m}") Duration lockAtMostFor) {
+        super(JOB_NAME, jdbcTemplate, transactionManager, meterRegistry, chunkSize, lockAtMostFor);
+        this.loanRepository = loanRepository;
+        this.loanViewRepository = loanViewRepository;
+    }
+
+    @Override
+    @Scheduled(cron = "${library.overdue-job.cron:0 */15 * * * *}")
+    public void run() {
+        super.run();
+    }
+
+    @Override
+    protected List<JobCheckpoint> nextChunk(JobCheckpoint after, int limit) {
+        LocalDate today = LocalDate.now();
+        List<OverdueCandidate> chunk = after == null
+                ? loanRepository.findOverdueCandidates(Loan.LoanStatus.ACTIVE, today, Limit.of(limit))
+                : loanRepository.findOverdueCandidatesAfter(Loan.LoanStatus.ACTIVE, today,
+                        after.date(), after.id(), Limit.of(limit));
+        return chunk.stream().map(loan -> new JobCheckpoint(loan.getDueDate(), loan.getId())).toList();
+    }
+
+    // The read-model rows change in the same transaction as the loans
+    @Override
+    protected int process(List<JobCheckpoint> chunk) {
+        List<Long> ids = chunk.stream().map(JobCheckpoint::id).toList();
+        int count = loanRepository.updateStatus(ids, Loan.LoanStatus.ACTIVE, Loan.LoanStatus.OVERDUE);
+        loanViewRepository.updateStatus(ids, Loan.LoanStatus.ACTIVE, Loan.LoanStatus.OVERDUE);
+        return count;
+    }
+}
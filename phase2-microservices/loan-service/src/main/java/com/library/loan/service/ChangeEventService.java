@@ -0,0 +1,140 @@
+package com.library.loan.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.outbox.ChangeEventDTO;
+import com.library.loan.client.CachingBookClient;
+import com.library.loan.client.CachingMemberClient;
+import com.library.loan.dto.BookDTO;
+import com.library.loan.dto.MemberDTO;
+import com.library.loan.repository.LoanViewRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Applies book and member change events to the local cache and the loan read model, and hands copies that reach
+// the shelf to the book's hold queue.
+// Events arrive in order per book or member but at least once, so applying one again must leave the same state.
+// Progress per source is published as library.change.events.* meters tagged with the aggregate type.
+@Slf4j
+@Service
+public class ChangeEventService {
+
+    private static final String BOOK = "book";
+    private static final String MEMBER = "member";
+
+    private final CachingBookClient cachingBookClient;
+    private final CachingMemberClient cachingMemberClient;
+    private final LoanViewRepository loanViewRepository;
+    private final HoldService holdService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, SourceMeters> meters;
+
+    public ChangeEventService(CachingBookClient cachingBookClient,
+                              CachingMemberClient cachingMemberClient,
+                              LoanViewRepository loanViewRepository,
+                              HoldService holdService,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.cachingBookClient = cachingBookClient;
+        this.cachingMemberClient = cachingMemberClient;
+        this.loanViewRepository = loanViewRepository;
+        this.holdService = holdService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meters = Map.of(BOOK, new SourceMeters(BOOK, meterRegistry),
+                MEMBER, new SourceMeters(MEMBER, meterRegistry));
+    }
+
+    public void apply(List<ChangeEventDTO> events) {
+        // One transaction per batch: the publisher only marks the batch delivered once we answer
+        transactionTemplate.executeWithoutResult(status -> events.forEach(this::apply));
+        if (!events.isEmpty()) {
+            recordApplied(events);
+        }
+    }
+
+    private void apply(ChangeEventDTO event) {
+        switch (event.getAggregateType()) {
+            case BOOK -> applyBookEvent(event);
+            case MEMBER -> applyMemberEvent(event);
+            default -> log.debug("Ignoring {} event {}", event.getAggregateType(), event.getId());
+        }
+    }
+
+    private void applyBookEvent(ChangeEventDTO event) {
+        cachingBookClient.evict(event.getAggregateId());
+        if (carriesSnapshot(event)) {
+            BookDTO book = objectMapper.convertValue(event.getPayload(), BookDTO.class);
+            loanViewRepository.updateBookSnapshot(event.getAggregateId(), book.getTitle(), book.getIsbn(),
+                    book.getAuthor());
+        }
+        // Added stock, or a copy released while a hold was being placed. Applying it again is harmless: a
+        // promotion needs a copy Book Service still has on the shelf
+        if ("INVENTORY_CHANGED".equals(event.getEventType()) && event.getCopiesDelta() != null
+                && event.getCopiesDelta() > 0) {
+            holdService.promoteWaiting(event.getAggregateId(), event.getCopiesDelta());
+        }
+    }
+
+    private void applyMemberEvent(ChangeEventDTO event) {
+        cachingMemberClient.evict(event.getAggregateId());
+        if (carriesSnapshot(event)) {
+            MemberDTO member = objectMapper.convertValue(event.getPayload(), MemberDTO.class);
+            loanViewRepository.updateMemberSnapshot(event.getAggregateId(), member.getFirstName(),
+                    member.getLastName(), member.getEmail());
+        }
+    }
+
+    // Deletions keep the last snapshot; inventory changes only move availableCopies, which the view does not hold
+    private boolean carriesSnapshot(ChangeEventDTO event) {
+        return ("CREATED".equals(event.getEventType()) || "UPDATED".equals(event.getEventType()))
+                && event.getPayload() != null;
+    }
+
+    // A relay sends events of one source per batch
+    private void recordApplied(List<ChangeEventDTO> events) {
+        ChangeEventDTO last = events.get(events.size() - 1);
+        SourceMeters source = meters.get(last.getAggregateType());
+        if (source == null) {
+            return;
+        }
+        source.applied.increment(events.size());
+        source.lastEventId.set(last.getId());
+        if (last.getCreatedAt() != null) {
+            source.lag.record(Duration.between(last.getCreatedAt(), LocalDateTime.now()));
+        }
+    }
+
+    private static class SourceMeters {
+
+        private final Counter applied;
+        private final Timer lag;
+        private final AtomicLong lastEventId = new AtomicLong();
+
+        SourceMeters(String aggregateType, MeterRegistry meterRegistry) {
+            applied = Counter.builder("library.change.events.applied")
+                    .tag("aggregate", aggregateType)
+                    .register(meterRegistry);
+            lag = Timer.builder("library.change.events.lag")
+                    .description("Time from the change committing at the source to it being applied here")
+                    .tag("aggregate", aggregateType)
+                    .register(meterRegistry);
+            Gauge.builder("library.change.events.last.id", lastEventId, AtomicLong::get)
+                    .description("Outbox id of the last event applied")
+                    .tag("aggregate", aggregateType)
+                    .register(meterRegistry);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,235 @@
+package com.library.loan.service;
+
+import com.library.loan.client.BookClient;
+import com.library.loan.client.CachingBookClient;
+import com.library.loan.client.CachingMemberClient;
+import com.library.loan.client.ResilientCalls;
+import com.library.loan.dto.BookDTO;
+import com.library.loan.dto.HoldDTO;
+import com.library.loan.dto.HoldResponseDTO;
+import com.library.loan.dto.MemberDTO;
+import com.library.loan.entity.Hold;
+import com.library.loan.exception.BusinessException;
+import com.library.loan.exception.DuplicateResourceException;
+import com.library.loan.exception.ResourceNotFoundException;
+import com.library.loan.repository.HoldRepository;
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class HoldService {
+
+    private static final Set<Hold.HoldStatus> ACTIVE_STATUSES = Set.of(Hold.HoldStatus.WAITING, Hold.HoldStatus.READY);
+
+    private final HoldRepository holdRepository;
+    private final BookClient bookClient;
+    private final CachingBookClient cachingBookClient;
+    private final CachingMemberClient cachingMemberClient;
+    private final ResilientCalls resilientCalls;
+    private final Duration pickupWindow;
+
+    public HoldService(HoldRepository holdRepository,
+                       BookClient bookClient,
+                       CachingBookClient cachingBookClient,
+                       CachingMemberClient cachingMemberClient,
+                       ResilientCalls resilientCalls,
+                       @Value("${library.holds.pickup-window:3d}") Duration pickupWindow) {
+        this.holdRepository = holdRepository;
+        this.bookClient = bookClient;
+        this.cachingBookClient = cachingBookClient;
+        this.cachingMemberClient = cachingMemberClient;
+        this.resilientCalls = resilientCalls;
+        this.pickupWindow = pickupWindow;
+    }
+
+    public HoldResponseDTO placeHold(HoldDTO holdDTO) {
+        BookDTO book = cachingBookClient.getBookFresh(holdDTO.getBookId());
+        MemberDTO member = cachingMemberClient.getMember(holdDTO.getMemberId());
+
+        if (!"ACTIVE".equals(member.getStatus())) {
+            throw new BusinessException("Member is not active");
+        }
+        if (book.getAvailableCopies() > 0) {
+            throw new BusinessException("Copies of " + book.getTitle() + " are available, check one out instead");
+        }
+
+        // uk_holds_active_member allows one waiting or ready hold per member and book, so two requests racing
+        // each other cannot both queue
+        Hold hold = new Hold(null, book.getId(), member.getId(), parseTier(holdDTO.getTier()),
+                Hold.HoldStatus.WAITING, LocalDateTime.now(), null, null, null);
+        try {
+            hold = holdRepository.saveAndFlush(hold);
+        } catch (DataIntegrityViolationException ex) {
+            throw new DuplicateResourceException("Member " + member.getId() + " already has a hold on book "
+                    + book.getId());
+        }
+        // A copy returned since the count was read went back to the shelf, as nobody was queued yet
+        promoteWaiting(book.getId(), 1);
+        return toResponseDTO(hold);
+    }
+
+    @Transactional(readOnly = true)
+    public HoldResponseDTO getHoldById(Long id) {
+        return toResponseDTO(findHold(id));
+    }
+
+    // Ready holds first, then the queue in the order it will be served
+    @Transactional(readOnly = true)
+    public List<HoldResponseDTO> getHoldsByBookId(Long bookId) {
+        List<HoldResponseDTO> holds = holdRepository
+                .findByBookIdAndStatusOrderByTierAscIdAsc(bookId, Hold.HoldStatus.READY).stream()
+                .map(hold -> toResponseDTO(hold, null))
+                .collect(Collectors.toCollection(ArrayList::new));
+        List<Hold> waiting = holdRepository.findByBookIdAndStatusOrderByTierAscIdAsc(bookId, Hold.HoldStatus.WAITING);
+        for (int i = 0; i < waiting.size(); i++) {
+            holds.add(toResponseDTO(waiting.get(i), i + 1));
+        }
+        return holds;
+    }
+
+    @Transactional(readOnly = true)
+    public List<HoldResponseDTO> getHoldsByMemberId(Long memberId) {
+        return holdRepository.findByMemberIdAndStatusInOrderByIdAsc(memberId, ACTIVE_STATUSES).stream()
+                .map(this::toResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    // A cancelled ready hold gives its copy up the same way a return does
+    public void cancelHold(Long id) {
+        Hold hold = findHold(id);
+        if (holdRepository.updateStatus(id, Hold.HoldStatus.WAITING, Hold.HoldStatus.CANCELLED) == 1) {
+            return;
+        }
+        if (holdRepository.updateStatus(id, Hold.HoldStatus.READY, Hold.HoldStatus.CANCELLED) == 1) {
+            passCopyOn(hold.getBookId(), hold.getReservationToken());
+            return;
+        }
+        throw new BusinessException("Hold " + id + " is " + hold.getStatus() + " and can no longer be cancelled");
+    }
+
+    // Part of a checkout: the member's ready hold on the book, whose copy the loan now takes, if there is one
+    public Optional<Hold> fulfillReadyHold(Long bookId, Long memberId) {
+        return holdRepository.findReady(bookId, memberId, Hold.HoldStatus.READY, LocalDateTime.now()).stream()
+                .filter(hold -> holdRepository.updateStatus(hold.getId(), Hold.HoldStatus.READY,
+                        Hold.HoldStatus.FULFILLED) == 1)
+                .findFirst();
+    }
+
+    // For a copy that just came back and is still counted as out in Book Service: it goes to the head of the
+    // book's queue, or back to Book Service when nobody is waiting. Runs in the caller's transaction.
+    public void passCopyOn(Long bookId, String reservationToken) {
+        List<Hold> head = holdRepository.lockQueueHead(bookId, Hold.HoldStatus.WAITING, Limit.of(1));
+        if (!head.isEmpty()) {
+            makeReady(head.get(0), reservationToken);
+            return;
+        }
+        resilientCalls.call(BookClient.SERVICE_ID, () -> bookClient.releaseCopy(bookId, reservationToken));
+        cachingBookClient.evict(bookId);
+    }
+
+    // For copies that are on the shelf while holds wait, such as added stock: reserves one per hold at the head of
+    // the queue until the queue or the copies run out. Runs in the caller's transaction; a rollback hands the
+    // reserved copies back.
+    public int promoteWaiting(Long bookId, int copies) {
+        int promoted = 0;
+        while (promoted < copies) {
+            List<Hold> head = holdRepository.lockQueueHead(bookId, Hold.HoldStatus.WAITING, Limit.of(1));
+            if (head.isEmpty()) {
+                break;
+            }
+            String reservationToken = UUID.randomUUID().toString();
+            if (!reserveCopy(bookId, reservationToken)) {
+                break;
+            }
+            makeReady(head.get(0), reservationToken);
+            promoted++;
+        }
+        return promoted;
+    }
+
+    // One expired hold per transaction, so a failed release only rolls back that hold. The status check makes
+    // sweeps on several replicas safe: only one of them expires a given hold and passes its copy on.
+    public boolean expireHold(Hold hold) {
+        if (holdRepository.expire(hold.getId(), Hold.HoldStatus.READY, Hold.HoldStatus.EXPIRED,
+                LocalDateTime.now()) == 0) {
+            return false;
+        }
+        passCopyOn(hold.getBookId(), hold.getReservationToken());
+        return true;
+    }
+
+    private void makeReady(Hold hold, String reservationToken) {
+        LocalDateTime now = LocalDateTime.now();
+        hold.setStatus(Hold.HoldStatus.READY);
+        hold.setReadyAt(now);
+        hold.setExpiresAt(now.plus(pickupWindow));
+        hold.setReservationToken(reservationToken);
+    }
+
+    // False when Book Service has no copy left. The release is registered first, like a checkout's, so a
+    // reservation whose answer never came back is still handed back
+    private boolean reserveCopy(Long bookId, String reservationToken) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    resilientCalls.call(BookClient.SERVICE_ID, () -> bookClient.releaseCopy(bookId, reservationToken));
+                    cachingBookClient.evict(bookId);
+                }
+            }
+        });
+        try {
+            resilientCalls.call(BookClient.SERVICE_ID, () -> bookClient.reserveCopy(bookId, reservationToken));
+        } catch (FeignException.BadRequest ex) {
+            return false;
+        }
+        cachingBookClient.evict(bookId);
+        return true;
+    }
+
+    private Hold findHold(Long id) {
+        return holdRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Hold not found with id: " + id));
+    }
+
+    private HoldResponseDTO toResponseDTO(Hold hold) {
+        Integer position = null;
+        if (hold.getStatus() == Hold.HoldStatus.WAITING) {
+            position = (int) holdRepository.countAhead(hold.getBookId(), Hold.HoldStatus.WAITING, hold.getTier(),
+                    hold.getId()) + 1;
+        }
+        return toResponseDTO(hold, position);
+    }
+
+    private static HoldResponseDTO toResponseDTO(Hold hold, Integer position) {
+        return new HoldResponseDTO(hold.getId(), hold.getBookId(), hold.getMemberId(), hold.getTier().name(),
+                hold.getStatus().name(), position, hold.getCreatedAt(), hold.getReadyAt(), hold.getExpiresAt());
+    }
+
+    private static Hold.Tier parseTier(String value) {
+        if (value == null || value.isBlank()) {
+            return Hold.Tier.STANDARD;
+        }
+        for (Hold.Tier tier : Hold.Tier.values()) {
+            if (tier.name().equalsIgnoreCase(value.trim())) {
+                return tier;
+            }
+        }
+        throw new BusinessException("Invalid tier: " + value + " (expected priority or standard)");
+    }
+}
\ No newline at end of file
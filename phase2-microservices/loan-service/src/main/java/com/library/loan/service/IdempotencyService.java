@@ -0,0 +1,209 @@
+package com.library.loan.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.loan.entity.IdempotencyKey;
+import com.library.loan.exception.BusinessException;
+import com.library.loan.exception.DuplicateResourceException;
+import com.library.loan.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Runs a write at most once per Idempotency-Key and replays its stored response afterwards, without any remote call.
+// Requests sharing a key on this instance wait for the first one; across instances the IN_PROGRESS row answers 409.
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${library.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${library.idempotency.in-progress-timeout:1m}") Duration inProgressTimeout) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+    }
+
+    // Without a key the action simply runs
+    public <T> Result<T> execute(String key, String operation, Object request, Class<T> type, Supplier<T> action) {
+        if (key == null) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(operation, request);
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkSameRequest(key, running.requestHash(), requestHash);
+            return new Result<>(type.cast(await(key, running.result())), true);
+        }
+        try {
+            Result<T> result = executeOnce(key, requestHash, type, action);
+            mine.result().complete(result.body());
+            return result;
+        } catch (RuntimeException ex) {
+            mine.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.idempotency.sweep-interval:10m}")
+    public void deleteExpiredKeys() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.deleteExpired(LocalDateTime.now()));
+        log.debug("Deleted {} expired idempotency keys", deleted);
+    }
+
+    private <T> Result<T> executeOnce(String key, String requestHash, Class<T> type, Supplier<T> action) {
+        IdempotencyKey completed = claim(key, requestHash);
+        if (completed != null) {
+            return new Result<>(fromJson(completed.getResponseBody(), type), true);
+        }
+        try {
+            // The response is stored in the action's own transaction: the write and its key commit together
+            T body = transactionTemplate.execute(status -> {
+                T response = action.get();
+                idempotencyKeyRepository.complete(key, IdempotencyKey.Status.COMPLETED, toJson(response));
+                return response;
+            });
+            return new Result<>(body, false);
+        } catch (RuntimeException ex) {
+            // Nothing was committed, so give the key back for the client's retry
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyKeyRepository.deleteByKeyAndStatus(key, IdempotencyKey.Status.IN_PROGRESS));
+            throw ex;
+        }
+    }
+
+    // Claims the key for this request, or returns the row of a request that already completed under it
+    private IdempotencyKey claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyKey existing = idempotencyKeyRepository.findById(key).orElse(null);
+        if (existing != null && existing.getExpiresAt().isBefore(now)) {
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteIfExpired(key, now));
+            existing = null;
+        }
+
+        if (existing == null) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        idempotencyKeyRepository.insertClaim(key, requestHash, now, now.plus(ttl)));
+                return null;
+            } catch (DataIntegrityViolationException ex) {
+                throw inProgress(key);
+            }
+        }
+
+        checkSameRequest(key, existing.getRequestHash(), requestHash);
+        if (existing.getStatus() == IdempotencyKey.Status.COMPLETED) {
+            return existing;
+        }
+        // The instance that claimed the key stopped before finishing; its transaction rolled back
+        if (existing.getCreatedAt().isBefore(now.minus(inProgressTimeout))) {
+            LocalDateTime seenCreatedAt = existing.getCreatedAt();
+            Integer taken = transactionTemplate.execute(status -> idempotencyKeyRepository.takeOverClaim(
+                    key, IdempotencyKey.Status.IN_PROGRESS, seenCreatedAt, now));
+            if (taken != null && taken == 1) {
+                return null;
+            }
+        }
+        throw inProgress(key);
+    }
+
+    private Object await(String key, CompletableFuture<Object> result) {
+        try {
+            return result.get(inProgressTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // The collapsed request fails the same way as the one that ran
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw inProgress(key);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw inProgress(key);
+        }
+    }
+
+    private void checkSameRequest(String key, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new DuplicateResourceException(HEADER + " " + key + " was already used for a different request");
+        }
+    }
+
+    private DuplicateResourceException inProgress(String key) {
+        return new DuplicateResourceException("A request with " + HEADER + " " + key + " is still in progress");
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("Could not fingerprint request", ex);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not store idempotent response", ex);
+        }
+    }
+
+    private <T> T fromJson(String responseBody, Class<T> type) {
+        try {
+            return objectMapper.readValue(responseBody, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable idempotent response", ex);
+        }
+    }
+
+    public record Result<T>(T body, boolean replayed) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<Object> result) {
+    }
+}
\ No newline at end of file
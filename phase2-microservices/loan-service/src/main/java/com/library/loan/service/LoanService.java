@@ -1,89 +1,285 @@
 package com.library.loan.service;
 
+import com.library.common.export.LoanExportRow;
+import com.library.common.web.CursorPage;
 import com.library.loan.client.BookClient;
-import com.library.loan.client.MemberClient;
+import com.library.loan.client.CachingBookClient;
+import com.library.loan.client.CachingMemberClient;
+import com.library.loan.client.RemoteCalls;
+import com.library.loan.client.ResilientCalls;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.loan.dto.BatchLoanItemDTO;
+import com.library.loan.dto.BatchLoanRequestDTO;
+import com.library.loan.dto.BatchLoanResponseDTO;
+import com.library.loan.dto.BatchReservationDTO;
 import com.library.loan.dto.BookDTO;
+import com.library.loan.dto.CopyReservationDTO;
+import com.library.loan.dto.InventoryDTO;
 import com.library.loan.dto.LoanDTO;
+import com.library.loan.dto.LoanExpand;
 import com.library.loan.dto.LoanResponseDTO;
+import com.library.loan.dto.LoanSummary;
 import com.library.loan.dto.MemberDTO;
+import com.library.loan.dto.ReservationItemDTO;
+import com.library.loan.entity.Hold;
 import com.library.loan.entity.Loan;
+import com.library.loan.entity.LoanView;
+import com.library.loan.exception.BatchCheckoutException;
 import com.library.loan.exception.BusinessException;
 import com.library.loan.exception.ResourceNotFoundException;
 import com.library.loan.mapper.LoanMapper;
+import com.library.loan.repository.LoanBatchRepository;
 import com.library.loan.repository.LoanRepository;
+import com.library.loan.repository.LoanViewRepository;
+import feign.FeignException;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class LoanService {
 
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final LoanRepository loanRepository;
+    private final LoanViewRepository loanViewRepository;
+    private final LoanViewService loanViewService;
+    private final HoldService holdService;
+    private final LoanBatchRepository loanBatchRepository;
     private final BookClient bookClient;
-    private final MemberClient memberClient;
+    private final CachingBookClient cachingBookClient;
+    private final CachingMemberClient cachingMemberClient;
+    private final RemoteCalls remoteCalls;
+    private final ResilientCalls resilientCalls;
     private final LoanMapper loanMapper;  // ← Added mapper
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
-    public List<LoanResponseDTO> getAllLoans() {
-        return loanRepository.findAll().stream()
-                .map(this::toLoanResponseDTO)
-                .collect(Collectors.toList());
+    // Loan reads come from loan_views: one local query, no calls to Book Service or Member Service
+    @Transactional(readOnly = true)
+    public List<LoanResponseDTO> getAllLoans(LoanExpand expand) {
+        return toLoanResponseDTOs(loanViewRepository.findAll(), expand);
     }
 
-    public LoanResponseDTO getLoanById(Long id) {
-        Loan loan = loanRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + id));
-        return toLoanResponseDTO(loan);
+    @Transactional(readOnly = true)
+    public List<LoanSummary> getAllLoanSummaries() {
+        return loanRepository.findAllSummaries();
     }
 
-    public List<LoanResponseDTO> getLoansByMemberId(Long memberId) {
-        return loanRepository.findByMemberId(memberId).stream()
-                .map(this::toLoanResponseDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<LoanResponseDTO> getLoansPage(String cursor, int size, LoanExpand expand) {
+        int pageSize = CursorPage.checkSize(size);
+        List<LoanView> loans = loanViewRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (loans.size() > pageSize) {
+            loans = loans.subList(0, pageSize);
+            nextCursor = CursorPage.encodeCursor(loans.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(toLoanResponseDTOs(loans, expand), nextCursor);
     }
 
-    public List<LoanResponseDTO> getLoansByBookId(Long bookId) {
-        return loanRepository.findByBookId(bookId).stream()
-                .map(this::toLoanResponseDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<LoanSummary> getLoanSummariesPage(String cursor, int size) {
+        int pageSize = CursorPage.checkSize(size);
+        List<LoanSummary> loans = loanRepository.findSummariesByIdGreaterThan(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (loans.size() > pageSize) {
+            loans = loans.subList(0, pageSize);
+            nextCursor = CursorPage.encodeCursor(loans.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(loans, nextCursor);
     }
 
-    public LoanResponseDTO createLoan(LoanDTO loanDTO) {
-        // Call Book Service via Feign Client
-        BookDTO book = bookClient.getBookById(loanDTO.getBookId());
-        if (book == null) {
-            throw new ResourceNotFoundException("Book not found with id: " + loanDTO.getBookId());
+    // Maps and emits one chunk at a time so memory stays flat whatever the table size
+    @Transactional(readOnly = true)
+    public void streamAllLoans(LoanExpand expand, Consumer<LoanResponseDTO> consumer) {
+        try (Stream<LoanView> loans = loanViewRepository.streamAll()) {
+            List<LoanView> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            for (Iterator<LoanView> it = loans.iterator(); it.hasNext(); ) {
+                chunk.add(it.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    toLoanResponseDTOs(chunk, expand).forEach(consumer);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+            toLoanResponseDTOs(chunk, expand).forEach(consumer);
         }
+    }
+
+    // Projections are not managed entities, so there is nothing to clear while streaming them
+    @Transactional(readOnly = true)
+    public void streamAllLoanSummaries(Consumer<LoanSummary> consumer) {
+        try (Stream<LoanSummary> loans = loanRepository.streamAllSummaries()) {
+            loans.forEach(consumer);
+        }
+    }
 
-        // Call Member Service via Feign Client
-        MemberDTO member = memberClient.getMemberById(loanDTO.getMemberId());
-        if (member == null) {
-            throw new ResourceNotFoundException("Member not found with id: " + loanDTO.getMemberId());
+    // Reporting export: rows come off a server-side cursor in (loanDate, id) order and leave one chunk at a time.
+    // Snapshots still missing from the read model are looked up for the whole chunk in one batch per service.
+    @Transactional(readOnly = true)
+    public void exportLoans(LocalDate from, LocalDate to, Loan.LoanStatus status, Consumer<LoanExportRow> consumer) {
+        try (Stream<LoanView> loans = loanViewRepository.streamForExport(from, to, status)) {
+            List<LoanView> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            for (Iterator<LoanView> it = loans.iterator(); it.hasNext(); ) {
+                chunk.add(it.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    exportChunk(chunk, consumer);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+            exportChunk(chunk, consumer);
         }
+    }
+
+    @Transactional(readOnly = true)
+    public LoanResponseDTO getLoanById(Long id, LoanExpand expand) {
+        LoanView loan = loanViewRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + id));
+        return toLoanResponseDTO(loan, expand);
+    }
+
+    @Transactional(readOnly = true)
+    public LoanSummary getLoanSummaryById(Long id) {
+        return loanRepository.findSummaryById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<LoanResponseDTO> getLoansByMemberId(Long memberId, LoanExpand expand) {
+        return toLoanResponseDTOs(loanViewRepository.findByMemberId(memberId), expand);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LoanSummary> getLoanSummariesByMemberId(Long memberId) {
+        return loanRepository.findSummariesByMemberId(memberId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LoanResponseDTO> getLoansByBookId(Long bookId, LoanExpand expand) {
+        return toLoanResponseDTOs(loanViewRepository.findByBookId(bookId), expand);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LoanSummary> getLoanSummariesByBookId(Long bookId) {
+        return loanRepository.findSummariesByBookId(bookId);
+    }
+
+    public LoanResponseDTO createLoan(LoanDTO loanDTO) {
+        // Both lookups run in parallel; availableCopies must never come from the cache here
+        CompletableFuture<BookDTO> bookLookup =
+                remoteCalls.submit(() -> cachingBookClient.getBookFresh(loanDTO.getBookId()));
+        CompletableFuture<MemberDTO> memberLookup =
+                remoteCalls.submit(() -> cachingMemberClient.getMember(loanDTO.getMemberId()));
+        remoteCalls.awaitAll(bookLookup, memberLookup);
+
+        BookDTO book = bookLookup.join();
+        MemberDTO member = memberLookup.join();
+
+        // A ready hold means a returned copy was set aside for this member; Book Service already counts it as out
+        Optional<Hold> readyHold = holdService.fulfillReadyHold(book.getId(), member.getId());
 
         // Business validations
-        if (book.getAvailableCopies() <= 0) {
-            throw new BusinessException("No copies available for book: " + book.getTitle());
+        if (readyHold.isEmpty() && book.getAvailableCopies() <= 0) {
+            throw new BusinessException("No copies available for book: " + book.getTitle()
+                    + " (place a hold with POST /api/loans/holds)");
         }
 
         if (!"ACTIVE".equals(member.getStatus())) {
             throw new BusinessException("Member is not active");
         }
 
-        // Update book available copies
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        bookClient.updateBook(book.getId(), book);
+        // Reserve a copy atomically in Book Service, and hand it back if the loan is not committed. The release is
+        // registered first, so a reservation whose answer never came back (timeout) is still handed back;
+        // the token makes that release a no-op if the reservation never happened.
+        String reservationToken;
+        if (readyHold.isPresent()) {
+            reservationToken = readyHold.get().getReservationToken();
+        } else {
+            reservationToken = UUID.randomUUID().toString();
+            releaseCopyOnRollback(book.getId(), reservationToken);
+            reserveCopy(book, reservationToken);
+        }
 
         // Create loan using mapper
         Loan loan = loanMapper.toEntity(loanDTO);
         loan.setStatus(Loan.LoanStatus.ACTIVE);
+        loan.setReservationToken(reservationToken);
 
         Loan savedLoan = loanRepository.save(loan);
-        return toLoanResponseDTO(savedLoan);
+        loanViewService.record(savedLoan, book, member);
+        return loanMapper.toResponseDTO(savedLoan, book, member);
+    }
+
+    // A whole cart for one member: one member check, one all-or-nothing reservation, one batched insert
+    public BatchLoanResponseDTO createLoans(BatchLoanRequestDTO request) {
+        MemberDTO member = cachingMemberClient.getMember(request.getMemberId());
+        if (!"ACTIVE".equals(member.getStatus())) {
+            throw new BusinessException("Member is not active");
+        }
+
+        // A book the member has a ready hold on takes the copy set aside for them, as in a single checkout; the rest
+        // get one token per copy and, as for a single checkout, the release is registered before the reservation
+        List<Long> bookIds = request.getBookIds();
+        List<CopyReservationDTO> copies = new ArrayList<>(bookIds.size());
+        List<CopyReservationDTO> toReserve = new ArrayList<>(bookIds.size());
+        for (Long bookId : bookIds) {
+            Optional<Hold> readyHold = holdService.fulfillReadyHold(bookId, member.getId());
+            CopyReservationDTO copy = new CopyReservationDTO(bookId, readyHold.map(Hold::getReservationToken)
+                    .orElseGet(() -> UUID.randomUUID().toString()));
+            copies.add(copy);
+            if (readyHold.isEmpty()) {
+                toReserve.add(copy);
+            }
+        }
+        if (!toReserve.isEmpty()) {
+            releaseCopiesOnRollback(toReserve);
+            reserveCopies(toReserve, bookIds);
+        }
+
+        // Reserved copies changed availableCopies, so the lookup that follows refetches those books
+        Set<Long> distinctBookIds = new LinkedHashSet<>(bookIds);
+        distinctBookIds.forEach(cachingBookClient::evict);
+        Map<Long, BookDTO> books = cachingBookClient.getBooks(distinctBookIds);
+
+        List<Loan> loans = copies.stream()
+                .map(copy -> new Loan(null, copy.getBookId(), member.getId(), request.getLoanDate(),
+                        request.getDueDate(), null, Loan.LoanStatus.ACTIVE, copy.getToken()))
+                .collect(Collectors.toList());
+        loanBatchRepository.insertLoans(loans);
+        loanViewService.recordAll(loans, books, member);
+
+        List<BatchLoanItemDTO> items = loans.stream()
+                .map(loan -> new BatchLoanItemDTO(loan.getBookId(), "CREATED",
+                        loanMapper.toResponseDTO(loan, books.get(loan.getBookId()), member), null))
+                .collect(Collectors.toList());
+        return new BatchLoanResponseDTO(true, items);
     }
 
     public LoanResponseDTO returnBook(Long loanId) {
@@ -97,13 +293,12 @@ public class LoanService {
         loan.setReturnDate(LocalDate.now());
         loan.setStatus(Loan.LoanStatus.RETURNED);
 
-        // Update book available copies
-        BookDTO book = bookClient.getBookById(loan.getBookId());
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        bookClient.updateBook(book.getId(), book);
+        // Flush first so a failed release rolls the return back instead of losing a copy.
+        // The copy goes to the next hold on the book if there is one, otherwise back to Book Service.
+        Loan updatedLoan = loanRepository.saveAndFlush(loan);
+        holdService.passCopyOn(loan.getBookId(), loan.getReservationToken());
 
-        Loan updatedLoan = loanRepository.save(loan);
-        return toLoanResponseDTO(updatedLoan);
+        return toLoanResponseDTO(loanViewService.update(updatedLoan), LoanExpand.ALL);
     }
 
     public LoanResponseDTO updateLoan(Long id, LoanDTO loanDTO) {
@@ -112,30 +307,139 @@ public class LoanService {
 
         loanMapper.updateEntityFromDTO(loanDTO, existingLoan);
         Loan updatedLoan = loanRepository.save(existingLoan);
-        return toLoanResponseDTO(updatedLoan);
+        return toLoanResponseDTO(loanViewService.update(updatedLoan), LoanExpand.ALL);
     }
 
+    // A loan deleted before its return gives the copy up the way a return does, after the delete is flushed
     public void deleteLoan(Long id) {
-        if (!loanRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Loan not found with id: " + id);
+        Loan loan = loanRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + id));
+        loanRepository.delete(loan);
+        loanRepository.flush();
+        if (loan.getStatus() != Loan.LoanStatus.RETURNED) {
+            holdService.passCopyOn(loan.getBookId(), loan.getReservationToken());
+        }
+        loanViewService.delete(id);
+    }
+
+    private void reserveCopy(BookDTO book, String token) {
+        try {
+            InventoryDTO inventory =
+                    resilientCalls.call(BookClient.SERVICE_ID, () -> bookClient.reserveCopy(book.getId(), token));
+            book.setAvailableCopies(inventory.getAvailableCopies());
+            cachingBookClient.evict(book.getId());
+        } catch (FeignException.BadRequest ex) {
+            // Another checkout took the last copy between our read and the reservation
+            throw new BusinessException("No copies available for book: " + book.getTitle());
+        }
+    }
+
+    private void reserveCopies(List<CopyReservationDTO> copies, List<Long> cartBookIds) {
+        try {
+            resilientCalls.call(BookClient.SERVICE_ID, () -> bookClient.reserveCopies(copies));
+        } catch (FeignException.Conflict ex) {
+            // Book Service rolled the whole reservation back and says why, book by book
+            throw new BatchCheckoutException(refusedCheckout(cartBookIds, readReservation(ex)));
         }
-        loanRepository.deleteById(id);
     }
 
-    // Helper method to convert Loan to LoanResponseDTO
-    private LoanResponseDTO toLoanResponseDTO(Loan loan) {
-        BookDTO book = bookClient.getBookById(loan.getBookId());
-        MemberDTO member = memberClient.getMemberById(loan.getMemberId());
+    private void releaseCopiesOnRollback(List<CopyReservationDTO> copies) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    resilientCalls.call(BookClient.SERVICE_ID, () -> bookClient.releaseCopies(copies));
+                    copies.forEach(copy -> cachingBookClient.evict(copy.getBookId()));
+                }
+            }
+        });
+    }
+
+    private BatchReservationDTO readReservation(FeignException.Conflict ex) {
+        try {
+            return objectMapper.readValue(ex.contentUTF8(), BatchReservationDTO.class);
+        } catch (JsonProcessingException parseError) {
+            throw new BusinessException("Not every book in the cart could be reserved");
+        }
+    }
+
+    private BatchLoanResponseDTO refusedCheckout(List<Long> bookIds, BatchReservationDTO reservation) {
+        Map<Long, ReservationItemDTO> outcomes = reservation.getItems().stream()
+                .collect(Collectors.toMap(ReservationItemDTO::getBookId, Function.identity()));
+        List<BatchLoanItemDTO> items = bookIds.stream()
+                .map(bookId -> {
+                    ReservationItemDTO outcome = outcomes.get(bookId);
+                    // A book Book Service was not asked about had its copy waiting on a ready hold
+                    String status = outcome != null ? outcome.getStatus() : "AVAILABLE";
+                    return new BatchLoanItemDTO(bookId, status, null, refusalMessage(status, outcome));
+                })
+                .collect(Collectors.toList());
+        return new BatchLoanResponseDTO(false, items);
+    }
 
-        LoanResponseDTO response = new LoanResponseDTO();
-        response.setId(loan.getId());
-        response.setBook(book);
-        response.setMember(member);
-        response.setLoanDate(loan.getLoanDate());
-        response.setDueDate(loan.getDueDate());
-        response.setReturnDate(loan.getReturnDate());
-        response.setStatus(loan.getStatus().name());
+    private String refusalMessage(String status, ReservationItemDTO outcome) {
+        return switch (status) {
+            case "NOT_FOUND" -> "Book not found";
+            case "AVAILABLE" -> "Not checked out because another book in the cart could not be";
+            default -> outcome == null ? "Not enough copies available"
+                    : "Not enough copies available: requested " + outcome.getRequestedCopies()
+                    + ", available " + outcome.getAvailableCopies();
+        };
+    }
+
+    private void releaseCopyOnRollback(Long bookId, String token) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    resilientCalls.call(BookClient.SERVICE_ID, () -> bookClient.releaseCopy(bookId, token));
+                    cachingBookClient.evict(bookId);
+                }
+            }
+        });
+    }
 
+    // Helper method to convert a loan view to LoanResponseDTO, embedding only the sides the caller expanded
+    private LoanResponseDTO toLoanResponseDTO(LoanView loan, LoanExpand expand) {
+        LoanResponseDTO response = loanMapper.toResponseDTO(loan);
+        if (!expand.includesBook()) {
+            response.setBook(null);
+        }
+        if (!expand.includesMember()) {
+            response.setMember(null);
+        }
         return response;
     }
-}
+
+    private void exportChunk(List<LoanView> chunk, Consumer<LoanExportRow> consumer) {
+        Set<Long> bookIds = chunk.stream().filter(view -> view.getBookTitle() == null)
+                .map(LoanView::getBookId).collect(Collectors.toSet());
+        Set<Long> memberIds = chunk.stream().filter(view -> view.getMemberLastName() == null)
+                .map(LoanView::getMemberId).collect(Collectors.toSet());
+        Map<Long, BookDTO> books = bookIds.isEmpty() ? Map.of() : cachingBookClient.getBooks(bookIds);
+        Map<Long, MemberDTO> members = memberIds.isEmpty() ? Map.of() : cachingMemberClient.getMembers(memberIds);
+
+        for (LoanView view : chunk) {
+            LoanExportRow row = loanMapper.toExportRow(view);
+            BookDTO book = row.getBookTitle() == null ? books.get(row.getBookId()) : null;
+            if (book != null) {
+                row.setBookTitle(book.getTitle());
+                row.setBookIsbn(book.getIsbn());
+                row.setBookAuthor(book.getAuthor());
+            }
+            MemberDTO member = row.getMemberLastName() == null ? members.get(row.getMemberId()) : null;
+            if (member != null) {
+                row.setMemberFirstName(member.getFirstName());
+                row.setMemberLastName(member.getLastName());
+                row.setMemberEmail(member.getEmail());
+            }
+            consumer.accept(row);
+        }
+    }
+
+    private List<LoanResponseDTO> toLoanResponseDTOs(List<LoanView> loans, LoanExpand expand) {
+        return loans.stream()
+                .map(loan -> toLoanResponseDTO(loan, expand))
+                .collect(Collectors.toList());
+    }
+}
\ No newline at end of file
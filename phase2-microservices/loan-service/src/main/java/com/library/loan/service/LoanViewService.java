@@ -0,0 +1,122 @@
+package com.library.loan.service;
+
+import com.library.loan.client.CachingBookClient;
+import com.library.loan.client.CachingMemberClient;
+import com.library.loan.dto.BookDTO;
+import com.library.loan.dto.MemberDTO;
+import com.library.loan.entity.Loan;
+import com.library.loan.entity.LoanView;
+import com.library.loan.mapper.LoanMapper;
+import com.library.loan.repository.LoanBatchRepository;
+import com.library.loan.repository.LoanRepository;
+import com.library.loan.repository.LoanViewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Keeps loan_views in step with loans (same transaction) and with the book and member snapshots (on change events)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class LoanViewService {
+
+    private final LoanViewRepository loanViewRepository;
+    private final LoanRepository loanRepository;
+    private final LoanBatchRepository loanBatchRepository;
+    private final CachingBookClient cachingBookClient;
+    private final CachingMemberClient cachingMemberClient;
+    private final LoanMapper loanMapper;
+
+    public LoanView record(Loan loan, BookDTO book, MemberDTO member) {
+        return loanViewRepository.save(toView(loan, book, member));
+    }
+
+    // Loans of one checkout share a member; inserted as one JDBC batch
+    public void recordAll(List<Loan> loans, Map<Long, BookDTO> books, MemberDTO member) {
+        loanBatchRepository.insertViews(loans.stream()
+                .map(loan -> toView(loan, books.get(loan.getBookId()), member))
+                .collect(Collectors.toList()));
+    }
+
+    // Copies the loan columns; a snapshot is only looked up when the loan now points at another book or member
+    public LoanView update(Loan loan) {
+        LoanView view = loanViewRepository.findById(loan.getId()).orElseGet(LoanView::new);
+        boolean bookChanged = !loan.getBookId().equals(view.getBookId());
+        boolean memberChanged = !loan.getMemberId().equals(view.getMemberId());
+
+        loanMapper.updateViewFromLoan(loan, view);
+        if (bookChanged) {
+            applyBook(view, cachingBookClient.getBooks(List.of(loan.getBookId())).get(loan.getBookId()));
+        }
+        if (memberChanged) {
+            applyMember(view, cachingMemberClient.getMembers(List.of(loan.getMemberId())).get(loan.getMemberId()));
+        }
+        return loanViewRepository.save(view);
+    }
+
+    public void delete(Long loanId) {
+        loanViewRepository.deleteById(loanId);
+    }
+
+    // A deleted book or member keeps its last snapshot, like the loans that still reference it
+    public void refreshBook(Long bookId) {
+        BookDTO book = cachingBookClient.getBooks(List.of(bookId)).get(bookId);
+        if (book != null) {
+            int rows = loanViewRepository.updateBookSnapshot(bookId, book.getTitle(), book.getIsbn(), book.getAuthor());
+            log.debug("Refreshed book {} in {} loan views", bookId, rows);
+        }
+    }
+
+    public void refreshMember(Long memberId) {
+        MemberDTO member = cachingMemberClient.getMembers(List.of(memberId)).get(memberId);
+        if (member != null) {
+            int rows = loanViewRepository.updateMemberSnapshot(memberId, member.getFirstName(),
+                    member.getLastName(), member.getEmail());
+            log.debug("Refreshed member {} in {} loan views", memberId, rows);
+        }
+    }
+
+    // Builds the views of those loans that have none yet; returns how many it created
+    public int backfill(List<Long> loanIds) {
+        List<Loan> loans = loanRepository.findWithoutView(loanIds);
+        if (loans.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> bookIds = loans.stream().map(Loan::getBookId).collect(Collectors.toSet());
+        Set<Long> memberIds = loans.stream().map(Loan::getMemberId).collect(Collectors.toSet());
+        Map<Long, BookDTO> books = cachingBookClient.getBooks(bookIds);
+        Map<Long, MemberDTO> members = cachingMemberClient.getMembers(memberIds);
+
+        loanViewRepository.saveAll(loans.stream()
+                .map(loan -> toView(loan, books.get(loan.getBookId()), members.get(loan.getMemberId())))
+                .collect(Collectors.toList()));
+        return loans.size();
+    }
+
+    private LoanView toView(Loan loan, BookDTO book, MemberDTO member) {
+        LoanView view = new LoanView();
+        loanMapper.updateViewFromLoan(loan, view);
+        applyBook(view, book);
+        applyMember(view, member);
+        return view;
+    }
+
+    private void applyBook(LoanView view, BookDTO book) {
+        view.setBookTitle(book != null ? book.getTitle() : null);
+        view.setBookIsbn(book != null ? book.getIsbn() : null);
+        view.setBookAuthor(book != null ? book.getAuthor() : null);
+    }
+
+    private void applyMember(LoanView view, MemberDTO member) {
+        view.setMemberFirstName(member != null ? member.getFirstName() : null);
+        view.setMemberLastName(member != null ? member.getLastName() : null);
+        view.setMemberEmail(member != null ? member.getEmail() : null);
+    }
+}
\ No newline at end of file
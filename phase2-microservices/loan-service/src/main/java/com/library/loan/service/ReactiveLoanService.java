@@ -0,0 +1,79 @@
+package com.library.loan.service;
+
+import com.library.loan.client.CachingBookClient;
+import com.library.loan.client.CachingMemberClient;
+import com.library.loan.dto.BookDTO;
+import com.library.loan.dto.LoanResponseDTO;
+import com.library.loan.dto.MemberDTO;
+import com.library.loan.entity.Loan;
+import com.library.loan.exception.ResourceNotFoundException;
+import com.library.loan.mapper.LoanMapper;
+import com.library.loan.repository.LoanRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+// Read-only twin of LoanService: JDBC stays blocking on boundedElastic,
+// book/member enrichment is composed without holding a thread per call.
+@Service
+@RequiredArgsConstructor
+public class ReactiveLoanService {
+
+    // Loans are enriched one chunk at a time so a slow consumer holds back the downstream lookups
+    private static final int ENRICH_CHUNK_SIZE = 500;
+
+    private final LoanRepository loanRepository;
+    private final LoanMapper loanMapper;
+    private final CachingBookClient cachingBookClient;
+    private final CachingMemberClient cachingMemberClient;
+
+    public Flux<LoanResponseDTO> getAllLoans() {
+        return enrich(query(loanRepository::findAll));
+    }
+
+    public Mono<LoanResponseDTO> getLoanById(Long id) {
+        return enrich(query(() -> List.of(loanRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + id)))))
+                .next();
+    }
+
+    public Flux<LoanResponseDTO> getLoansByMemberId(Long memberId) {
+        return enrich(query(() -> loanRepository.findByMemberId(memberId)));
+    }
+
+    public Flux<LoanResponseDTO> getLoansByBookId(Long bookId) {
+        return enrich(query(() -> loanRepository.findByBookId(bookId)));
+    }
+
+    private Mono<List<Loan>> query(Callable<List<Loan>> query) {
+        return Mono.fromCallable(query).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<LoanResponseDTO> enrich(Mono<List<Loan>> loans) {
+        return loans.flatMapIterable(list -> list)
+                .buffer(ENRICH_CHUNK_SIZE)
+                .concatMap(this::enrichChunk);
+    }
+
+    private Flux<LoanResponseDTO> enrichChunk(List<Loan> loans) {
+        Set<Long> bookIds = loans.stream().map(Loan::getBookId).collect(Collectors.toSet());
+        Set<Long> memberIds = loans.stream().map(Loan::getMemberId).collect(Collectors.toSet());
+
+        return Mono.zip(cachingBookClient.getBooksAsync(bookIds), cachingMemberClient.getMembersAsync(memberIds))
+                .flatMapIterable(lookups -> {
+                    Map<Long, BookDTO> books = lookups.getT1();
+                    Map<Long, MemberDTO> members = lookups.getT2();
+                    return loans.stream()
+                            .map(loan -> loanMapper.toResponseDTO(loan, books.get(loan.getBookId()),
+                                    members.get(loan.getMemberId())))
+                            .collect(Collectors.toList());
+                });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+-- Tables as Hibernate generated them under ddl-auto=update; "if not exists" adopts existing databases
+create table if not exists loans (
+    id bigint not null auto_increment,
+    book_id bigint not null,
+    due_date date not null,
+    loan_date date not null,
+    member_id bigint not null,
+    return_date date,
+    status enum ('ACTIVE','RETURNED','OVERDUE'),
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists scheduled_jobs (
+    name varchar(64) not null,
+    checkpoint_due_date date,
+    checkpoint_id bigint,
+    last_run_duration_ms bigint,
+    last_run_finished_at datetime(6),
+    last_run_scanned bigint,
+    last_run_started_at datetime(6),
+    last_run_updated bigint,
+    locked_by varchar(255),
+    locked_until datetime(6),
+    primary key (name)
+) engine=InnoDB;
@@ -0,0 +1,21 @@
+-- Denormalized read model served by GET /api/loans; rows are backfilled by LoanViewService on startup
+create table loan_views (
+    id bigint not null,
+    book_id bigint not null,
+    member_id bigint not null,
+    loan_date date not null,
+    due_date date not null,
+    return_date date,
+    status enum ('ACTIVE','RETURNED','OVERDUE'),
+    book_title varchar(255),
+    book_isbn varchar(255),
+    book_author varchar(255),
+    member_first_name varchar(255),
+    member_last_name varchar(255),
+    member_email varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+-- Listings by member or book, and the snapshot refreshes that rewrite every row of one book or member
+create index idx_loan_views_member_status on loan_views (member_id, status);
+create index idx_loan_views_book_status on loan_views (book_id, status);
@@ -0,0 +1,13 @@
+-- Idempotency-Key store for POST /api/loans and PUT /api/loans/{id}/return
+create table idempotency_keys (
+    idempotency_key varchar(64) not null,
+    request_hash varchar(64) not null,
+    status enum ('IN_PROGRESS','COMPLETED') not null,
+    response_body varchar(4000),
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    primary key (idempotency_key)
+) engine=InnoDB;
+
+-- The expiry sweep
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
@@ -0,0 +1,19 @@
+-- Hold queue: WAITING rows are the queue of a book, a READY row keeps a returned copy until expires_at
+create table holds (
+    id bigint not null auto_increment,
+    book_id bigint not null,
+    member_id bigint not null,
+    tier tinyint not null,
+    status enum ('WAITING','READY','FULFILLED','CANCELLED','EXPIRED') not null,
+    created_at datetime(6) not null,
+    ready_at datetime(6),
+    expires_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+-- Head of a book's queue in (tier, id) order: one index seek however long the queue is
+create index idx_holds_book_queue on holds (book_id, status, tier, id);
+-- A member's holds, and the ready hold a checkout fulfils
+create index idx_holds_member_book on holds (member_id, book_id, status);
+-- The expiry sweep
+create index idx_holds_status_expires_at on holds (status, expires_at);
@@ -0,0 +1,4 @@
+-- Token of the Book Service reservation behind the copy a loan or ready hold has; null for copies reserved before
+-- tokens existed, which are released without one
+alter table loans add column reservation_token varchar(36);
+alter table holds add column reservation_token varchar(36);
@@ -0,0 +1,5 @@
+-- One waiting or ready hold per member and book. active_member_id is null once a hold is closed, and a unique key
+-- lets any number of nulls through, so closed holds do not count
+alter table holds add column active_member_id bigint
+    generated always as (case when status in ('WAITING', 'READY') then member_id end);
+create unique index uk_holds_active_member on holds (book_id, active_member_id);
\ No newline at end of file
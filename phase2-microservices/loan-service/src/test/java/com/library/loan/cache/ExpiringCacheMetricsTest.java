@@ -0,0 +1,33 @@
+package com.library.loan.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringCacheMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ExpiringCache<Long, String> cache = new ExpiringCache<>(2, Duration.ofMinutes(1), Duration.ofSeconds(1));
+
+    @Test
+    void publishesHitsMissesPutsAndEvictions() {
+        new ExpiringCacheMetrics(cache, "books").bindTo(registry);
+
+        cache.get(1L, id -> "one");
+        cache.get(1L, id -> "one");
+        cache.get(2L, id -> "two");
+        cache.get(3L, id -> "three");
+
+        assertThat(registry.get("cache.gets").tag("cache", "books").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "books").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(3);
+        assertThat(registry.get("cache.puts").tag("cache", "books").functionCounter().count()).isEqualTo(3);
+        assertThat(registry.get("cache.evictions").tag("cache", "books").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").tag("cache", "books").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("cache.maximum.size").tag("cache", "books").gauge().value()).isEqualTo(2);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.library.loan.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpiringCacheTest {
+
+    private final ExpiringCache<Long, String> cache =
+            new ExpiringCache<>(100, Duration.ofMinutes(1), Duration.ofSeconds(1));
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() throws Exception {
+        BlockedLoad load = new BlockedLoad();
+        CompletableFuture<String> read = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> load.await("old")));
+        load.awaitStarted();
+        cache.invalidate(1L);
+        load.release();
+
+        // The caller still gets what it loaded, but the next read goes back to the source
+        assertThat(read.get(10, TimeUnit.SECONDS)).isEqualTo("old");
+        assertThat(cache.get(1L, id -> "new")).isEqualTo("new");
+        assertThat(cache.get(1L, id -> "newer")).isEqualTo("new");
+    }
+
+    @Test
+    void batchLoadOverlappingAnInvalidationSkipsOnlyThatKey() throws Exception {
+        BlockedLoad load = new BlockedLoad();
+        CompletableFuture<Map<Long, String>> read = CompletableFuture.supplyAsync(() ->
+                cache.getAll(List.of(1L, 2L), ids -> load.await(Map.of(1L, "old one", 2L, "old two"))));
+        load.awaitStarted();
+        cache.invalidate(1L);
+        load.release();
+
+        assertThat(read.get(10, TimeUnit.SECONDS)).containsEntry(1L, "old one");
+        assertThat(cache.getAll(List.of(1L, 2L), ids -> Map.of(1L, "new one", 2L, "new two")))
+                .containsEntry(1L, "new one")
+                .containsEntry(2L, "old two");
+    }
+
+    @Test
+    void asyncLoadOverlappingAnInvalidateAllIsNotCached() throws Exception {
+        BlockedLoad load = new BlockedLoad();
+        Function<Set<Long>, Mono<Map<Long, String>>> loader = ids ->
+                Mono.fromCallable(() -> load.await(Map.of(1L, "old"))).subscribeOn(Schedulers.boundedElastic());
+        CompletableFuture<Map<Long, String>> read = cache.getAllAsync(List.of(1L), loader).toFuture();
+        load.awaitStarted();
+        cache.invalidateAll();
+        load.release();
+
+        assertThat(read.get(10, TimeUnit.SECONDS)).containsEntry(1L, "old");
+        assertThat(cache.get(1L, id -> "new")).isEqualTo("new");
+    }
+
+    @Test
+    void failedLoadLeavesLaterLoadsCached() {
+        assertThatThrownBy(() -> cache.get(1L, id -> {
+            throw new IllegalStateException("remote call failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(1L, id -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get(1L, id -> "again")).isEqualTo("loaded");
+    }
+
+    // A loader that signals it has started and then waits to be let go
+    private static final class BlockedLoad {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        <T> T await(T value) {
+            started.countDown();
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        }
+
+        void awaitStarted() throws InterruptedException {
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
\ No newline at end of file
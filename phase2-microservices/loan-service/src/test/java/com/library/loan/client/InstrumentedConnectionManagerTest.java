@@ -0,0 +1,64 @@
+package com.library.loan.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstrumentedConnectionManagerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private InstrumentedConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/books", exchange -> {
+            exchange.sendResponseHeaders(200, 2);
+            exchange.getResponseBody().write("[]".getBytes());
+            exchange.close();
+        });
+        server.start();
+        connectionManager = new InstrumentedConnectionManager(meterRegistry, "feign");
+        connectionManager.setMaxTotal(20);
+        connectionManager.setDefaultMaxPerRoute(5);
+        httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void publishesPoolSizeConnectionsAndLeaseWaits() throws IOException {
+        String route = "http://localhost:" + server.getAddress().getPort();
+        for (int i = 0; i < 3; i++) {
+            httpClient.execute(new HttpGet(route + "/api/books"), response -> EntityUtils.toString(response.getEntity()));
+        }
+
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "feign")
+                .gauge().value()).isEqualTo(20);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.acquire").tag("route", route)
+                .timer().count()).isEqualTo(3);
+        // Keep-alive hands the same connection back to the pool after each request
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.route.connections")
+                .tags("route", route, "state", "available").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.route.connections")
+                .tags("route", route, "state", "leased").gauge().value()).isZero();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.library.loan.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.loan.dto.BookDTO;
+import com.library.loan.exception.ServiceUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Mono;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Reactive lookups against a stubbed Book Service, with a small breaker (opens after 4 calls at 50% failures)
+// and a bulkhead of one call
+class ReactiveLookupsTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    private volatile int status = 200;
+    private volatile CountDownLatch answer = new CountDownLatch(0);
+    private final CountDownLatch received = new CountDownLatch(1);
+
+    private HttpServer server;
+    private ResilientCalls resilientCalls;
+    private ReactiveLookups reactiveLookups;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/books", this::respond);
+        server.setExecutor(serverThreads);
+        server.start();
+
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        resilientCalls = new ResilientCalls(circuitBreakers, bulkheads, new MockEnvironment(), false,
+                0.95, Duration.ofMillis(20), Duration.ofMillis(500), 4);
+
+        ServiceInstance instance = new DefaultServiceInstance("book-1", BookClient.SERVICE_ID, "localhost",
+                server.getAddress().getPort(), false);
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = request -> Mono.just(new DefaultResponse(instance));
+        @SuppressWarnings("unchecked")
+        ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers = mock(ReactiveLoadBalancer.Factory.class);
+        when(loadBalancers.getInstance(BookClient.SERVICE_ID)).thenReturn(loadBalancer);
+        reactiveLookups = new ReactiveLookups(loadBalancers, resilientCalls, new ObjectMapper(), 2, 4,
+                Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void stop() {
+        answer.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+        reactiveLookups.destroy();
+        resilientCalls.destroy();
+    }
+
+    @Test
+    void failingLookupsOpenTheCircuitAndStopReachingTheService() {
+        status = 503;
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(this::fetchBook)
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .hasMessageContaining("status 503");
+        }
+
+        assertThatThrownBy(this::fetchBook)
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("circuit breaker is open");
+        assertThat(requests).hasValue(4);
+    }
+
+    @Test
+    void bulkheadTurnsAwayLookupsBeyondItsLimitUntilTheInFlightOneCompletes() throws Exception {
+        answer = new CountDownLatch(1);
+        CompletableFuture<Map<Long, BookDTO>> inFlight = lookup().toFuture();
+        assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(this::fetchBook)
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("Too many calls in flight");
+        assertThat(requests).hasValue(1);
+
+        answer.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).containsKey(1L);
+        assertThat(fetchBook()).containsKey(1L);
+    }
+
+    private Map<Long, BookDTO> fetchBook() {
+        return lookup().block(Duration.ofSeconds(5));
+    }
+
+    private Mono<Map<Long, BookDTO>> lookup() {
+        return reactiveLookups.fetchByIds(BookClient.SERVICE_ID, "/api/books", List.of(1L), BookDTO.class,
+                BookDTO::getId);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        received.countDown();
+        try {
+            answer.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = "[{\"id\":1,\"title\":\"Refactoring\"}]".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.library.loan.client;
+
+import com.library.loan.dto.BookDTO;
+import com.library.loan.dto.MemberDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Checkout's book and member lookups against stubbed services with injected latency:
+// one after the other (before) and in parallel through RemoteCalls (after). Wall-clock timing, so outside the default
+// build: mvn -Pbenchmarks test
+@Slf4j
+@Tag("benchmark")
+class RemoteCallsBenchmarkTest {
+
+    private static final int ITERATIONS = 100;
+
+    private final RemoteCalls remoteCalls =
+            new RemoteCalls(new MockEnvironment(), 16, 64, 256, Duration.ofSeconds(2));
+
+    // Same latencies for both runs: 10-30 ms per call, with one call in fifty taking 150 ms
+    private final long[] bookDelays = delays(new Random(1));
+    private final long[] memberDelays = delays(new Random(2));
+
+    @AfterEach
+    void shutdown() {
+        remoteCalls.destroy();
+    }
+
+    @Test
+    void parallelLookupsCutCheckoutLatency() {
+        long[] sequential = new long[ITERATIONS];
+        long[] parallel = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            int call = i;
+            sequential[i] = time(() -> {
+                lookUpBook(bookDelays[call]);
+                lookUpMember(memberDelays[call]);
+            });
+            parallel[i] = time(() -> {
+                CompletableFuture<BookDTO> book = remoteCalls.submit(() -> lookUpBook(bookDelays[call]));
+                CompletableFuture<MemberDTO> member = remoteCalls.submit(() -> lookUpMember(memberDelays[call]));
+                remoteCalls.awaitAll(book, member);
+            });
+        }
+
+        log.info("Checkout lookups, sequential: p50 {} ms, p99 {} ms; parallel: p50 {} ms, p99 {} ms",
+                percentile(sequential, 50), percentile(sequential, 99),
+                percentile(parallel, 50), percentile(parallel, 99));
+        // The sum of two latencies becomes the larger of the two
+        assertThat(percentile(parallel, 50)).isLessThan(percentile(sequential, 50) * 3 / 4);
+        // Both runs share the slow calls; allow for scheduling noise on a busy host
+        assertThat(percentile(parallel, 99)).isLessThan(percentile(sequential, 99) + 50);
+    }
+
+    private static BookDTO lookUpBook(long delayMillis) {
+        sleep(delayMillis);
+        return new BookDTO();
+    }
+
+    private static MemberDTO lookUpMember(long delayMillis) {
+        sleep(delayMillis);
+        return new MemberDTO();
+    }
+
+    private static long[] delays(Random random) {
+        long[] delays = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            delays[i] = random.nextInt(50) == 0 ? 150 : 10 + random.nextInt(21);
+        }
+        return delays;
+    }
+
+    private static long time(Runnable checkout) {
+        long started = System.nanoTime();
+        checkout.run();
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+
+    private static long percentile(long[] millis, int percentile) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
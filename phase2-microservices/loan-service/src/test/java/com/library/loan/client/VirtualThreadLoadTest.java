@@ -0,0 +1,70 @@
+package com.library.loan.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.TaskExecutor;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Same burst of blocking requests on a Tomcat-sized platform pool and on virtual threads.
+// Each request blocks on two sequential downstream calls, like a checkout looking up a book and then reserving it.
+// A load comparison on the wall clock, so outside the default build: mvn -Pbenchmarks test
+@Slf4j
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadLoadTest {
+
+    private static final int REQUESTS = 2_000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final Duration DOWNSTREAM_LATENCY = Duration.ofMillis(25);
+
+    @Test
+    void virtualThreadsServeBlockingBurstFasterThanPlatformPool() throws InterruptedException {
+        TaskExecutor platform = RemoteCalls.platformThreadPool("platform-", TOMCAT_MAX_THREADS, TOMCAT_MAX_THREADS,
+                REQUESTS);
+        TaskExecutor virtual = RemoteCalls.virtualThreadExecutor("virtual-", REQUESTS);
+        try {
+            // Warm-up so class loading and thread creation do not land on either measurement
+            run(platform, TOMCAT_MAX_THREADS);
+            run(virtual, TOMCAT_MAX_THREADS);
+
+            Duration platformElapsed = run(platform, REQUESTS);
+            Duration virtualElapsed = run(virtual, REQUESTS);
+
+            log.info("{} requests: platform pool ({} threads) {} ms, virtual threads {} ms",
+                    REQUESTS, TOMCAT_MAX_THREADS, platformElapsed.toMillis(), virtualElapsed.toMillis());
+            // 2000 requests over 200 threads need 10 waves of 50 ms; virtual threads run them in about one
+            assertThat(virtualElapsed.multipliedBy(3)).isLessThan(platformElapsed);
+        } finally {
+            RemoteCalls.shutdown(platform);
+            RemoteCalls.shutdown(virtual);
+        }
+    }
+
+    private static Duration run(TaskExecutor executor, int requests) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(requests);
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            executor.execute(() -> {
+                downstreamCall();
+                downstreamCall();
+                done.countDown();
+            });
+        }
+        done.await();
+        return Duration.ofNanos(System.nanoTime() - started);
+    }
+
+    private static void downstreamCall() {
+        try {
+            Thread.sleep(DOWNSTREAM_LATENCY.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.library.loan.scheduler;
+
+import com.library.loan.client.BookClient;
+import com.library.loan.client.MemberClient;
+import com.library.loan.dto.BookDTO;
+import com.library.loan.dto.MemberDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanViewBackfillTest {
+
+    private static final long BOOK_ID = 7001;
+    private static final long MEMBER_ID = 7002;
+
+    @Autowired
+    private LoanViewBackfill loanViewBackfill;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private BookClient bookClient;
+
+    @MockitoBean
+    private MemberClient memberClient;
+
+    @Test
+    void backfillsLoansWithoutAViewAndThenOnlyLooksAtNewerLoans() {
+        BookDTO book = new BookDTO(BOOK_ID, "Domain-Driven Design", "978-0321125217", "Eric Evans", null, null, 1);
+        MemberDTO member = new MemberDTO();
+        member.setId(MEMBER_ID);
+        member.setFirstName("Grace");
+        member.setLastName("Hopper");
+        member.setEmail("grace@example.com");
+        when(bookClient.getBooksByIds(any())).thenReturn(List.of(book));
+        when(memberClient.getMembersByIds(any())).thenReturn(List.of(member));
+        // Catch up with whatever other tests left behind
+        loanViewBackfill.run();
+
+        long first = insertLoanWithoutView();
+        long second = insertLoanWithoutView();
+        loanViewBackfill.run();
+
+        assertThat(jdbcTemplate.queryForList("select book_title from loan_views where id in (?, ?)", String.class,
+                first, second)).containsExactly("Domain-Driven Design", "Domain-Driven Design");
+        assertThat(lastRunScanned()).isEqualTo(2);
+
+        loanViewBackfill.run();
+
+        assertThat(lastRunScanned()).isZero();
+    }
+
+    private long insertLoanWithoutView() {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("insert into loans " +
+                    "(book_id, member_id, loan_date, due_date, status) values (?, ?, ?, ?, 'ACTIVE')",
+                    Statement.RETURN_GENERATED_KEYS);
+            statement.setLong(1, BOOK_ID);
+            statement.setLong(2, MEMBER_ID);
+            statement.setDate(3, Date.valueOf(LocalDate.now()));
+            statement.setDate(4, Date.valueOf(LocalDate.now().plusDays(14)));
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private long lastRunScanned() {
+        return jdbcTemplate.queryForObject(
+                "select last_run_scanned from scheduled_jobs where name = 'loan-view-backfill'", Long.class);
+    }
+}
\ No newline at end of file
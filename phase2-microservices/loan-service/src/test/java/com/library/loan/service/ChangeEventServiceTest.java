@@ -0,0 +1,65 @@
+package com.library.loan.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.outbox.ChangeEventDTO;
+import com.library.loan.client.BookClient;
+import com.library.loan.client.MemberClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ChangeEventServiceTest {
+
+    @Autowired
+    private ChangeEventService changeEventService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private BookClient bookClient;
+
+    @MockitoBean
+    private MemberClient memberClient;
+
+    @Test
+    void publishesProgressPerSourceAsMetrics() {
+        double appliedBefore = meterRegistry.get("library.change.events.applied").tag("aggregate", "book")
+                .counter().count();
+        LocalDateTime committedAt = LocalDateTime.now().minusSeconds(3);
+
+        changeEventService.apply(List.of(
+                event(41L, "book", 7L, "UPDATED", committedAt.minusSeconds(1)),
+                event(42L, "book", 8L, "INVENTORY_CHANGED", committedAt)));
+
+        assertThat(meterRegistry.get("library.change.events.applied").tag("aggregate", "book").counter().count())
+                .isEqualTo(appliedBefore + 2);
+        assertThat(meterRegistry.get("library.change.events.last.id").tag("aggregate", "book").gauge().value())
+                .isEqualTo(42);
+        assertThat(meterRegistry.get("library.change.events.lag").tag("aggregate", "book").timer()
+                .max(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(3);
+        assertThat(meterRegistry.get("library.change.events.last.id").tag("aggregate", "member").gauge().value())
+                .isZero();
+    }
+
+    private ChangeEventDTO event(Long id, String aggregateType, Long aggregateId, String eventType,
+                                 LocalDateTime createdAt) {
+        return new ChangeEventDTO(id, aggregateType, aggregateId, eventType, null,
+                objectMapper.valueToTree(Map.of("title", "Dune", "isbn", "9780441013593", "author", "Herbert")),
+                createdAt);
+    }
+}
\ No newline at end of file
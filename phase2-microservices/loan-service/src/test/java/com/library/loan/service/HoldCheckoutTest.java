@@ -0,0 +1,167 @@
+package com.library.loan.service;
+
+import com.library.loan.client.BookClient;
+import com.library.loan.client.MemberClient;
+import com.library.loan.dto.BatchLoanRequestDTO;
+import com.library.loan.dto.BatchLoanResponseDTO;
+import com.library.loan.dto.BatchReservationDTO;
+import com.library.loan.dto.CopyReservationDTO;
+import com.library.loan.dto.HoldDTO;
+import com.library.loan.dto.InventoryDTO;
+import com.library.loan.dto.LoanDTO;
+import com.library.loan.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.library.loan.service.LoanReservationTest.book;
+import static com.library.loan.service.LoanReservationTest.member;
+import static com.library.loan.service.LoanReservationTest.noCopyLeft;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// A returned copy waits on the hold it was passed to; these check that every way out of a loan honours that
+@SpringBootTest
+@ActiveProfiles("test")
+class HoldCheckoutTest {
+
+    private static final AtomicLong IDS = new AtomicLong(5000);
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private BookClient bookClient;
+
+    @MockitoBean
+    private MemberClient memberClient;
+
+    private Long bookId;
+    private Long otherBookId;
+    private Long borrowerId;
+    private Long holderId;
+
+    @BeforeEach
+    void stubServices() {
+        bookId = IDS.incrementAndGet();
+        otherBookId = IDS.incrementAndGet();
+        borrowerId = IDS.incrementAndGet();
+        holderId = IDS.incrementAndGet();
+        // The single copy is out after the first checkout
+        when(bookClient.getBookById(bookId)).thenReturn(book(bookId, 1), book(bookId, 0));
+        when(bookClient.getBookById(otherBookId)).thenAnswer(call -> book(otherBookId, 3));
+        when(bookClient.getBooksByIds(any())).thenReturn(List.of(book(bookId, 0), book(otherBookId, 2)));
+        when(bookClient.reserveCopy(any(), anyString()))
+                .thenAnswer(call -> new InventoryDTO(call.getArgument(0), 0));
+        // The first checkout takes the only copy, so a hold placed after it has to wait
+        when(bookClient.reserveCopy(eq(bookId), anyString()))
+                .thenReturn(new InventoryDTO(bookId, 0))
+                .thenThrow(noCopyLeft());
+        when(memberClient.getMemberById(borrowerId)).thenReturn(member(borrowerId));
+        when(memberClient.getMemberById(holderId)).thenReturn(member(holderId));
+    }
+
+    @Test
+    void cartTakesTheCopyWaitingOnTheMembersReadyHold() {
+        Long holdId = passCopyToHolder();
+        String heldToken = token(borrowerId, bookId);
+        when(bookClient.reserveCopies(any())).thenReturn(new BatchReservationDTO(true, List.of()));
+
+        BatchLoanResponseDTO cart = loanService.createLoans(cart(bookId, otherBookId));
+
+        assertThat(cart.isCreated()).isTrue();
+        assertThat(token(holderId, bookId)).isEqualTo(heldToken);
+        assertThat(holdService.getHoldById(holdId).getStatus()).isEqualTo("FULFILLED");
+        ArgumentCaptor<List<CopyReservationDTO>> reserved = ArgumentCaptor.forClass(List.class);
+        verify(bookClient).reserveCopies(reserved.capture());
+        assertThat(reserved.getValue()).extracting(CopyReservationDTO::getBookId).containsExactly(otherBookId);
+        verify(bookClient, never()).releaseCopy(eq(bookId), any());
+    }
+
+    @Test
+    void cartOfHeldBooksOnlyReservesNothing() {
+        Long holdId = passCopyToHolder();
+
+        assertThat(loanService.createLoans(cart(bookId)).isCreated()).isTrue();
+
+        assertThat(holdService.getHoldById(holdId).getStatus()).isEqualTo("FULFILLED");
+        verify(bookClient, never()).reserveCopies(any());
+    }
+
+    @Test
+    void failedCartLeavesTheHoldReady() {
+        Long holdId = passCopyToHolder();
+        when(bookClient.reserveCopies(any())).thenThrow(new ServiceUnavailableException("Downstream call timed out"));
+
+        assertThatThrownBy(() -> loanService.createLoans(cart(bookId, otherBookId)))
+                .isInstanceOf(ServiceUnavailableException.class);
+
+        assertThat(holdService.getHoldById(holdId).getStatus()).isEqualTo("READY");
+    }
+
+    @Test
+    void deletingALoanStillOutPassesItsCopyOn() {
+        Long loanId = checkOut(bookId, borrowerId);
+        Long holdId = holdService.placeHold(new HoldDTO(bookId, holderId, null)).getId();
+
+        loanService.deleteLoan(loanId);
+
+        assertThat(holdService.getHoldById(holdId).getStatus()).isEqualTo("READY");
+        verify(bookClient, never()).releaseCopy(eq(bookId), any());
+
+        // With nobody waiting the copy goes back to Book Service; a returned loan has none left to give
+        Long otherLoanId = checkOut(otherBookId, borrowerId);
+        String otherToken = token(borrowerId, otherBookId);
+        loanService.deleteLoan(otherLoanId);
+        verify(bookClient).releaseCopy(otherBookId, otherToken);
+
+        Long returnedLoanId = checkOut(otherBookId, borrowerId);
+        loanService.returnBook(returnedLoanId);
+        loanService.deleteLoan(returnedLoanId);
+        verify(bookClient, times(2)).releaseCopy(eq(otherBookId), any());
+    }
+
+    // The borrower checks out the only copy, the holder queues for it, and the return makes the hold ready
+    private Long passCopyToHolder() {
+        Long loanId = checkOut(bookId, borrowerId);
+        Long holdId = holdService.placeHold(new HoldDTO(bookId, holderId, null)).getId();
+        loanService.returnBook(loanId);
+        assertThat(holdService.getHoldById(holdId).getStatus()).isEqualTo("READY");
+        return holdId;
+    }
+
+    private Long checkOut(Long book, Long member) {
+        return loanService.createLoan(new LoanDTO(null, book, member, LocalDate.now(), LocalDate.now().plusDays(14),
+                null, null)).getId();
+    }
+
+    private BatchLoanRequestDTO cart(Long... bookIds) {
+        return new BatchLoanRequestDTO(holderId, List.of(bookIds), LocalDate.now(), LocalDate.now().plusDays(14));
+    }
+
+    private String token(Long member, Long book) {
+        return jdbcTemplate.queryForObject("select reservation_token from loans where member_id = ? and book_id = ? " +
+                "order by id desc limit 1", String.class, member, book);
+    }
+}
\ No newline at end of file
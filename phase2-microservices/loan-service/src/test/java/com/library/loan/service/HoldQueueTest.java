@@ -0,0 +1,129 @@
+package com.library.loan.service;
+
+import com.library.common.outbox.ChangeEventDTO;
+import com.library.loan.client.BookClient;
+import com.library.loan.client.MemberClient;
+import com.library.loan.dto.HoldDTO;
+import com.library.loan.dto.HoldResponseDTO;
+import com.library.loan.dto.InventoryDTO;
+import com.library.loan.exception.DuplicateResourceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.library.loan.service.LoanReservationTest.book;
+import static com.library.loan.service.LoanReservationTest.member;
+import static com.library.loan.service.LoanReservationTest.noCopyLeft;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+// Copies that reach the shelf while holds wait must go to the queue, not to the next walk-in checkout
+@SpringBootTest
+@ActiveProfiles("test")
+class HoldQueueTest {
+
+    private static final AtomicLong IDS = new AtomicLong(8000);
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private ChangeEventService changeEventService;
+
+    @MockitoBean
+    private BookClient bookClient;
+
+    @MockitoBean
+    private MemberClient memberClient;
+
+    private Long bookId;
+
+    @BeforeEach
+    void stubServices() {
+        bookId = IDS.incrementAndGet();
+        when(bookClient.getBookById(bookId)).thenAnswer(call -> book(bookId, 0));
+        when(memberClient.getMemberById(any())).thenAnswer(call -> member(call.getArgument(0)));
+        when(bookClient.reserveCopy(eq(bookId), anyString())).thenThrow(noCopyLeft());
+    }
+
+    @Test
+    void holdPlacedAsTheLastCopyComesBackTakesIt() {
+        // The count said none left, but the copy was back on the shelf by the time the hold was saved
+        when(bookClient.reserveCopy(eq(bookId), anyString())).thenReturn(new InventoryDTO(bookId, 0));
+
+        HoldResponseDTO hold = holdService.placeHold(new HoldDTO(bookId, IDS.incrementAndGet(), null));
+
+        assertThat(hold.getStatus()).isEqualTo("READY");
+        assertThat(hold.getPosition()).isNull();
+        assertThat(hold.getExpiresAt()).isNotNull();
+    }
+
+    @Test
+    void addedStockPromotesTheHeadsOfTheQueue() {
+        List<Long> holds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            holds.add(holdService.placeHold(new HoldDTO(bookId, IDS.incrementAndGet(), null)).getId());
+        }
+        Long priority = holdService.placeHold(new HoldDTO(bookId, IDS.incrementAndGet(), "priority")).getId();
+        assertThat(holdService.getHoldById(priority).getPosition()).isEqualTo(1);
+        assertThat(holdService.getHoldById(holds.get(2)).getPosition()).isEqualTo(4);
+
+        // Two copies added through PUT /api/books/{id}
+        when(bookClient.reserveCopy(eq(bookId), anyString())).thenReturn(new InventoryDTO(bookId, 0));
+        changeEventService.apply(List.of(new ChangeEventDTO(IDS.incrementAndGet(), "book", bookId,
+                "INVENTORY_CHANGED", 2, null, LocalDateTime.now())));
+
+        assertThat(holdService.getHoldById(priority).getStatus()).isEqualTo("READY");
+        assertThat(holdService.getHoldById(holds.get(0)).getStatus()).isEqualTo("READY");
+        assertThat(holdService.getHoldById(holds.get(1)).getPosition()).isEqualTo(1);
+        assertThat(holdService.getHoldById(holds.get(2)).getPosition()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRequestsQueueTheMemberOnce() throws Exception {
+        Long memberId = IDS.incrementAndGet();
+        // Both requests have read the book before either saves its hold
+        CyclicBarrier bothRead = new CyclicBarrier(2);
+        doAnswer(call -> {
+            bothRead.await(10, TimeUnit.SECONDS);
+            return book(bookId, 0);
+        }).when(bookClient).getBookById(bookId);
+        List<CompletableFuture<HoldResponseDTO>> requests = List.of(
+                CompletableFuture.supplyAsync(() -> holdService.placeHold(new HoldDTO(bookId, memberId, null))),
+                CompletableFuture.supplyAsync(() -> holdService.placeHold(new HoldDTO(bookId, memberId, null))));
+
+        List<Throwable> refused = new ArrayList<>();
+        for (CompletableFuture<HoldResponseDTO> request : requests) {
+            try {
+                request.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException ex) {
+                refused.add(ex.getCause());
+            }
+        }
+        assertThat(refused).singleElement().isInstanceOf(DuplicateResourceException.class);
+        assertThat(holdService.getHoldsByMemberId(memberId)).hasSize(1);
+
+        // A closed hold no longer counts
+        doAnswer(call -> book(bookId, 0)).when(bookClient).getBookById(bookId);
+        holdService.cancelHold(holdService.getHoldsByMemberId(memberId).get(0).getId());
+        assertThat(holdService.placeHold(new HoldDTO(bookId, memberId, null)).getStatus()).isEqualTo("WAITING");
+        assertThatThrownBy(() -> holdService.placeHold(new HoldDTO(bookId, memberId, null)))
+                .isInstanceOf(DuplicateResourceException.class);
+    }
+}
\ No newline at end of file
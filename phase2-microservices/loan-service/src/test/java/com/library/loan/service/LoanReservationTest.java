@@ -0,0 +1,137 @@
+package com.library.loan.service;
+
+import com.library.loan.client.BookClient;
+import com.library.loan.client.MemberClient;
+import com.library.loan.dto.BatchLoanRequestDTO;
+import com.library.loan.dto.BookDTO;
+import com.library.loan.dto.CopyReservationDTO;
+import com.library.loan.dto.InventoryDTO;
+import com.library.loan.dto.LoanDTO;
+import com.library.loan.dto.LoanResponseDTO;
+import com.library.loan.dto.MemberDTO;
+import com.library.loan.exception.ServiceUnavailableException;
+import com.library.loan.repository.LoanRepository;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Book Service is stubbed; the checks are on the reservation tokens Loan Service sends it
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanReservationTest {
+
+    private static final AtomicLong IDS = new AtomicLong(1000);
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @MockitoBean
+    private BookClient bookClient;
+
+    @MockitoBean
+    private MemberClient memberClient;
+
+    private Long bookId;
+    private Long memberId;
+
+    @BeforeEach
+    void stubServices() {
+        bookId = IDS.incrementAndGet();
+        memberId = IDS.incrementAndGet();
+        when(bookClient.getBookById(bookId)).thenReturn(book(bookId, 1));
+        when(memberClient.getMemberById(memberId)).thenReturn(member(memberId));
+    }
+
+    @Test
+    void reservationThatTimesOutIsReleasedUnderItsToken() {
+        when(bookClient.reserveCopy(eq(bookId), anyString()))
+                .thenThrow(new ServiceUnavailableException("Downstream call timed out"));
+
+        assertThatThrownBy(() -> loanService.createLoan(loanDTO())).isInstanceOf(ServiceUnavailableException.class);
+
+        ArgumentCaptor<String> reserved = ArgumentCaptor.forClass(String.class);
+        verify(bookClient).reserveCopy(eq(bookId), reserved.capture());
+        verify(bookClient).releaseCopy(bookId, reserved.getValue());
+    }
+
+    @Test
+    void returnReleasesTheLoanReservation() {
+        when(bookClient.reserveCopy(eq(bookId), anyString())).thenReturn(new InventoryDTO(bookId, 0));
+        when(bookClient.releaseCopy(eq(bookId), any())).thenReturn(new InventoryDTO(bookId, 1));
+
+        LoanResponseDTO loan = loanService.createLoan(loanDTO());
+        String token = loanRepository.findById(loan.getId()).orElseThrow().getReservationToken();
+        loanService.returnBook(loan.getId());
+
+        assertThat(token).isNotNull();
+        verify(bookClient).reserveCopy(bookId, token);
+        verify(bookClient).releaseCopy(bookId, token);
+    }
+
+    @Test
+    void batchReservationThatTimesOutIsReleasedUnderItsTokens() {
+        when(bookClient.reserveCopies(any())).thenThrow(new ServiceUnavailableException("Downstream call timed out"));
+        BatchLoanRequestDTO cart = new BatchLoanRequestDTO(memberId, List.of(bookId, bookId), LocalDate.now(),
+                LocalDate.now().plusDays(14));
+
+        assertThatThrownBy(() -> loanService.createLoans(cart)).isInstanceOf(ServiceUnavailableException.class);
+
+        ArgumentCaptor<List<CopyReservationDTO>> reserved = ArgumentCaptor.forClass(List.class);
+        verify(bookClient).reserveCopies(reserved.capture());
+        assertThat(reserved.getValue()).extracting(CopyReservationDTO::getToken).doesNotHaveDuplicates();
+        verify(bookClient).releaseCopies(reserved.getValue());
+    }
+
+    private LoanDTO loanDTO() {
+        return new LoanDTO(null, bookId, memberId, LocalDate.now(), LocalDate.now().plusDays(14), null, null);
+    }
+
+    static BookDTO book(Long id, int availableCopies) {
+        BookDTO book = new BookDTO();
+        book.setId(id);
+        book.setTitle("Book " + id);
+        book.setIsbn("isbn-" + id);
+        book.setAuthor("Author");
+        book.setAvailableCopies(availableCopies);
+        return book;
+    }
+
+    static MemberDTO member(Long id) {
+        MemberDTO member = new MemberDTO();
+        member.setId(id);
+        member.setFirstName("First");
+        member.setLastName("Member " + id);
+        member.setEmail("member" + id + "@example.com");
+        member.setStatus("ACTIVE");
+        return member;
+    }
+
+    // Book Service's answer when the last copy is already gone
+    static FeignException noCopyLeft() {
+        Request request = Request.create(Request.HttpMethod.POST, "/api/books/reserve", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return new FeignException.BadRequest("No copies available", request, null, Map.of());
+    }
+}
\ No newline at end of file
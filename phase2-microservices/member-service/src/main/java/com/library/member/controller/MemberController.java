@@ -1,12 +1,17 @@
 package com.library.member.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.common.web.CursorPage;
+import com.library.common.web.NdjsonResponses;
 import com.library.member.dto.MemberDTO;
+import com.library.member.dto.MemberSuggestionDTO;
 import com.library.member.service.MemberService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
@@ -15,12 +20,34 @@ import java.util.List;
 public class MemberController {
 
     private final MemberService memberService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public ResponseEntity<List<MemberDTO>> getAllMembers() {
+    public ResponseEntity<List<MemberDTO>> getAllMembers(@RequestParam(required = false) List<Long> ids) {
+        if (ids != null) {
+            return ResponseEntity.ok(memberService.getMembersByIds(ids));
+        }
         return ResponseEntity.ok(memberService.getAllMembers());
     }
 
+    @GetMapping(params = "size")
+    public ResponseEntity<CursorPage<MemberDTO>> getMembersPage(@RequestParam(required = false) String cursor,
+                                                                @RequestParam int size) {
+        return ResponseEntity.ok(memberService.getMembersPage(cursor, size));
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllMembers() {
+        return NdjsonResponses.stream(objectMapper, memberService::streamAllMembers);
+    }
+
+    // Desk autocomplete: members with a name or e-mail word starting with each word of the prefix
+    @GetMapping("/suggest")
+    public ResponseEntity<List<MemberSuggestionDTO>> suggestMembers(@RequestParam String prefix,
+                                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(memberService.suggestMembers(prefix, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MemberDTO> getMemberById(@PathVariable Long id) {
         return ResponseEntity.ok(memberService.getMemberById(id));
@@ -0,0 +1,20 @@
+package com.library.member.controller;
+
+import com.library.member.dto.SuggestIndexStatsDTO;
+import com.library.member.search.MemberSuggestIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/members/suggest")
+@RequiredArgsConstructor
+public class SuggestIndexController {
+
+    private final MemberSuggestIndex memberSuggestIndex;
+
+    @GetMapping("/stats")
+    public ResponseEntity<SuggestIndexStatsDTO> getSuggestIndexStats() {
+        return ResponseEntity.ok(memberSuggestIndex.stats());
+    }
+}
\ No newline at end of file
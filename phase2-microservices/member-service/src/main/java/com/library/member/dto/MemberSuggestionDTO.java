@@ -0,0 +1,17 @@
+package com.library.member.dto;
+
+import com.library.member.entity.Member;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberSuggestionDTO {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Member.MemberStatus status;
+}
\ No newline at end of file
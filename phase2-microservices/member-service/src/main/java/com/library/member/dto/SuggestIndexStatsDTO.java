@@ -0,0 +1,19 @@
+package com.library.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestIndexStatsDTO {
+    private boolean ready;
+    private int members;
+    private int keys;
+    private LocalDateTime lastRebuildAt;
+    private long lastRebuildMs;
+    private long lookups;
+    private long totalLookupMicros;
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.library.member.exception;
+
+public class BusinessException extends RuntimeException {
+    public BusinessException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
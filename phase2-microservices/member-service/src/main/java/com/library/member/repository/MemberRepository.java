@@ -1,12 +1,31 @@
 package com.library.member.repository;
 
 import com.library.member.entity.Member;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    List<Member> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select m from Member m order by m.id")
+    Stream<Member> streamAll();
+
+    // Feeds the suggest index rebuild without loading managed entities
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select m.id as id, m.firstName as firstName, m.lastName as lastName, m.email as email, " +
+            "m.status as status from Member m")
+    Stream<MemberSuggestFields> streamSuggestFields();
 }
\ No newline at end of file
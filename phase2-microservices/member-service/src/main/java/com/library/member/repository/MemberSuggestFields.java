@@ -0,0 +1,12 @@
+package com.library.member.repository;
+
+import com.library.member.entity.Member;
+
+// Spring Data projection with the columns the suggest index covers
+public interface MemberSuggestFields {
+    Long getId();
+    String getFirstName();
+    String getLastName();
+    String getEmail();
+    Member.MemberStatus getStatus();
+}
\ No newline at end of file
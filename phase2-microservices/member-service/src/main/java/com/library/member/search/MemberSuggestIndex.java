@@ -0,0 +1,317 @@
+package com.library.member.search;
+
+import com.library.common.search.RebuildableIndex;
+import com.library.member.dto.MemberDTO;
+import com.library.member.dto.MemberSuggestionDTO;
+import com.library.member.dto.SuggestIndexStatsDTO;
+import com.library.member.exception.ServiceUnavailableException;
+import com.library.member.repository.MemberRepository;
+import com.library.member.repository.MemberSuggestFields;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Prefix index for member lookup at the desk. Keys are the words of the first and last name, the e-mail address
+// and the words of its local part, lower-cased without accents, kept as (key, member id) pairs in sorted arrays.
+// A lookup binary-searches the first key at or after the prefix, walks forward and stops once it has enough
+// members, so it reads about as many entries as it returns; shorter keys sort first, so "ann" ranks ahead of
+// "annabel". Built at startup, updated as member changes commit here, rebuilt periodically for changes on other
+// replicas.
+@Component
+public class MemberSuggestIndex extends RebuildableIndex<MemberSuggestIndex.State> {
+
+    // Bounds the walk for multi-word lookups, where keys matching the first word can fail the others
+    private static final int MAX_SCANNED_KEYS = 5000;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NAME_PUNCTUATION = Pattern.compile("['\u2019-]+");
+    private static final Pattern EMAIL_SEPARATORS = Pattern.compile("[._+-]+");
+
+    private final MemberRepository memberRepository;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder totalLookupMicros = new LongAdder();
+
+    public MemberSuggestIndex(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+        super("Member suggest index", transactionManager, new State(new SortedKeys(new String[0], new long[0])));
+        this.memberRepository = memberRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${library.suggest.rebuild-interval:1h}",
+            fixedDelayString = "${library.suggest.rebuild-interval:1h}")
+    public void rebuild() {
+        super.rebuild();
+    }
+
+    // Collects every pair, sorts them once and lays them out in the arrays, with no per-key insert
+    @Override
+    protected State load() {
+        Map<Long, Entry> members = new HashMap<>();
+        List<Key> keys = new ArrayList<>();
+        try (Stream<MemberSuggestFields> rows = memberRepository.streamSuggestFields()) {
+            rows.forEach(row -> {
+                MemberSuggestionDTO member = new MemberSuggestionDTO(row.getId(), row.getFirstName(),
+                        row.getLastName(), row.getEmail(), row.getStatus());
+                Set<String> memberKeys = keysOf(member);
+                memberKeys.forEach(text -> keys.add(new Key(text, member.getId())));
+                members.put(member.getId(), new Entry(member, memberKeys.toArray(new String[0])));
+            });
+        }
+        keys.sort(null);
+        String[] texts = new String[keys.size()];
+        long[] ids = new long[keys.size()];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = keys.get(i).text();
+            ids[i] = keys.get(i).memberId();
+        }
+        State fresh = new State(new SortedKeys(texts, ids));
+        fresh.members.putAll(members);
+        return fresh;
+    }
+
+    @Override
+    protected String describe(State state) {
+        return state.members.size() + " members, " + state.keys.size + " keys";
+    }
+
+    public void indexAfterCommit(MemberDTO member) {
+        MemberSuggestionDTO suggestion = new MemberSuggestionDTO(member.getId(), member.getFirstName(),
+                member.getLastName(), member.getEmail(), member.getStatus());
+        applyAfterCommit(state -> state.put(suggestion));
+    }
+
+    public void removeAfterCommit(Long id) {
+        applyAfterCommit(state -> state.remove(id));
+    }
+
+    // Every word of the prefix must start one of the member's keys; the longest word drives the walk
+    public List<MemberSuggestionDTO> suggest(String prefix, int limit) {
+        if (!isReady()) {
+            throw new ServiceUnavailableException("Member suggest index is still being built");
+        }
+        long started = System.nanoTime();
+        List<String> words = new ArrayList<>();
+        for (String word : prefix.trim().split("\\s+")) {
+            // "o'neil" and "mary-jane" are typed the way names are written; the keys hold them joined
+            String folded = word.indexOf('@') >= 0 ? fold(word) : NAME_PUNCTUATION.matcher(fold(word)).replaceAll("");
+            if (!folded.isEmpty()) {
+                words.add(folded);
+            }
+        }
+        String lead = words.stream().max(Comparator.comparingInt(String::length)).orElse("");
+
+        List<MemberSuggestionDTO> found = read(state -> {
+            Map<Long, MemberSuggestionDTO> matches = new LinkedHashMap<>();
+            SortedKeys keys = state.keys;
+            int start = keys.lowerBound(lead);
+            int end = Math.min(keys.size, start + MAX_SCANNED_KEYS);
+            for (int i = start; i < end && keys.texts[i].startsWith(lead); i++) {
+                long memberId = keys.ids[i];
+                Entry entry = state.members.get(memberId);
+                if (entry == null || matches.containsKey(memberId)) {
+                    continue;
+                }
+                if (words.size() == 1 || matchesAll(entry.keys(), words)) {
+                    matches.put(memberId, entry.member());
+                    if (matches.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return new ArrayList<>(matches.values());
+        });
+        lookups.increment();
+        totalLookupMicros.add((System.nanoTime() - started) / 1_000);
+        return found;
+    }
+
+    public SuggestIndexStatsDTO stats() {
+        return read(state -> new SuggestIndexStatsDTO(isReady(), state.members.size(), state.keys.size,
+                getLastRebuildAt(), getLastRebuildMs(), lookups.sum(), totalLookupMicros.sum()));
+    }
+
+    private static boolean matchesAll(String[] keys, List<String> words) {
+        for (String word : words) {
+            boolean matched = false;
+            for (String key : keys) {
+                if (key.startsWith(word)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> keysOf(MemberSuggestionDTO member) {
+        Set<String> keys = new LinkedHashSet<>();
+        addNameKeys(member.getFirstName(), keys);
+        addNameKeys(member.getLastName(), keys);
+        if (member.getEmail() != null && !member.getEmail().isBlank()) {
+            String email = fold(member.getEmail());
+            keys.add(email);
+            String localPart = email.substring(0, Math.max(email.indexOf('@'), 0));
+            for (String word : EMAIL_SEPARATORS.split(localPart)) {
+                if (!word.isEmpty()) {
+                    keys.add(word);
+                }
+            }
+        }
+        return keys;
+    }
+
+    // "Mary-Jane O'Neil" gives mary, jane, o, neil and the joined forms maryjane and oneil
+    private static void addNameKeys(String name, Set<String> keys) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String[] words = NAME_SEPARATORS.split(fold(name));
+        StringBuilder joined = new StringBuilder();
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                keys.add(word);
+                joined.append(word);
+            }
+        }
+        if (joined.length() > 0) {
+            keys.add(joined.toString());
+        }
+    }
+
+    private static String fold(String text) {
+        return MARKS.matcher(Normalizer.normalize(text.trim(), Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    // Only for sorting the pairs of a rebuild
+    private record Key(String text, long memberId) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byText = text.compareTo(other.text);
+            return byText != 0 ? byText : Long.compare(memberId, other.memberId);
+        }
+    }
+
+    private record Entry(MemberSuggestionDTO member, String[] keys) {
+    }
+
+    static final class State {
+
+        private final SortedKeys keys;
+        private final Map<Long, Entry> members = new HashMap<>();
+
+        State(SortedKeys keys) {
+            this.keys = keys;
+        }
+
+        void put(MemberSuggestionDTO member) {
+            remove(member.getId());
+            Set<String> memberKeys = keysOf(member);
+            memberKeys.forEach(text -> keys.add(text, member.getId()));
+            members.put(member.getId(), new Entry(member, memberKeys.toArray(new String[0])));
+        }
+
+        void remove(Long id) {
+            Entry entry = members.remove(id);
+            if (entry != null) {
+                for (String text : entry.keys()) {
+                    keys.remove(text, id);
+                }
+            }
+        }
+    }
+
+    // (key, member id) pairs in two parallel arrays sorted by key, then id: a reference and a long per pair, with no
+    // node or boxed pair per key. A change shifts the pairs after its slot
+    private static final class SortedKeys {
+
+        private String[] texts;
+        private long[] ids;
+        private int size;
+
+        SortedKeys(String[] texts, long[] ids) {
+            this.texts = texts;
+            this.ids = ids;
+            this.size = texts.length;
+        }
+
+        // Index of the first pair whose key is not below text
+        int lowerBound(String text) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (texts[mid].compareTo(text) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void add(String text, long id) {
+            int at = slot(text, id);
+            if (at < size && texts[at].equals(text) && ids[at] == id) {
+                return;
+            }
+            if (size == texts.length) {
+                int capacity = Math.max(16, size + (size >> 1));
+                texts = Arrays.copyOf(texts, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            System.arraycopy(texts, at, texts, at + 1, size - at);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            texts[at] = text;
+            ids[at] = id;
+            size++;
+        }
+
+        void remove(String text, long id) {
+            int at = slot(text, id);
+            if (at == size || !texts[at].equals(text) || ids[at] != id) {
+                return;
+            }
+            size--;
+            System.arraycopy(texts, at + 1, texts, at, size - at);
+            System.arraycopy(ids, at + 1, ids, at, size - at);
+            texts[size] = null;
+        }
+
+        // Index of the pair, or of the first pair after it
+        private int slot(String text, long id) {
+            int at = lowerBound(text);
+            int end = at;
+            while (end < size && texts[end].equals(text)) {
+                end++;
+            }
+            int found = Arrays.binarySearch(ids, at, end, id);
+            return found >= 0 ? found : -found - 1;
+        }
+    }
+}
\ No newline at end of file
@@ -1,24 +1,44 @@
 package com.library.member.service;
 
+import com.library.common.outbox.ChangeEventType;
+import com.library.common.outbox.OutboxWriter;
+import com.library.common.web.CursorPage;
 import com.library.member.dto.MemberDTO;
+import com.library.member.dto.MemberSuggestionDTO;
 import com.library.member.entity.Member;
+import com.library.member.exception.BusinessException;
 import com.library.member.exception.DuplicateResourceException;
 import com.library.member.exception.ResourceNotFoundException;
 import com.library.member.mapper.MemberMapper;
 import com.library.member.repository.MemberRepository;
+import com.library.member.search.MemberSuggestIndex;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class MemberService {
 
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final MemberRepository memberRepository;
     private final MemberMapper memberMapper;
+    private final EntityManager entityManager;
+    private final OutboxWriter outboxWriter;
+    private final MemberSuggestIndex memberSuggestIndex;
 
     public List<MemberDTO> getAllMembers() {
         return memberRepository.findAll().stream()
@@ -26,6 +46,54 @@ public class MemberService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<MemberDTO> getMembersPage(String cursor, int size) {
+        int pageSize = CursorPage.checkSize(size);
+        List<Member> members = memberRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (members.size() > pageSize) {
+            members = members.subList(0, pageSize);
+            nextCursor = CursorPage.encodeCursor(members.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(members.stream().map(memberMapper::toDTO).collect(Collectors.toList()), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllMembers(Consumer<MemberDTO> consumer) {
+        try (Stream<Member> members = memberRepository.streamAll()) {
+            int count = 0;
+            for (Iterator<Member> it = members.iterator(); it.hasNext(); ) {
+                consumer.accept(memberMapper.toDTO(it.next()));
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    public List<MemberDTO> getMembersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return memberRepository.findAllById(new HashSet<>(ids)).stream()
+                .map(memberMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    // Served from memory without a transaction or a query
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MemberSuggestionDTO> suggestMembers(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BusinessException("Prefix is required");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new BusinessException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return memberSuggestIndex.suggest(prefix, limit);
+    }
+
     public MemberDTO getMemberById(Long id) {
         Member member = memberRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Member not found with id: " + id));
@@ -38,7 +106,10 @@ public class MemberService {
         }
         Member member = memberMapper.toEntity(memberDTO);
         Member savedMember = memberRepository.save(member);
-        return memberMapper.toDTO(savedMember);
+        MemberDTO created = memberMapper.toDTO(savedMember);
+        outboxWriter.append(savedMember.getId(), ChangeEventType.CREATED, null, created);
+        memberSuggestIndex.indexAfterCommit(created);
+        return created;
     }
 
     public MemberDTO updateMember(Long id, MemberDTO memberDTO) {
@@ -51,8 +122,12 @@ public class MemberService {
         }
 
         memberMapper.updateEntityFromDTO(memberDTO, existingMember);
-        Member updatedMember = memberRepository.save(existingMember);
-        return memberMapper.toDTO(updatedMember);
+        // Flush so the row lock is held before the event gets its id
+        Member updatedMember = memberRepository.saveAndFlush(existingMember);
+        MemberDTO updated = memberMapper.toDTO(updatedMember);
+        outboxWriter.append(id, ChangeEventType.UPDATED, null, updated);
+        memberSuggestIndex.indexAfterCommit(updated);
+        return updated;
     }
 
     public void deleteMember(Long id) {
@@ -60,5 +135,8 @@ public class MemberService {
             throw new ResourceNotFoundException("Member not found with id: " + id);
         }
         memberRepository.deleteById(id);
+        memberRepository.flush();
+        outboxWriter.append(id, ChangeEventType.DELETED, null, null);
+        memberSuggestIndex.removeAfterCommit(id);
     }
 }
\ No newline at end of file
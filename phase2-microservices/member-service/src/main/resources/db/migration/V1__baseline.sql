@@ -0,0 +1,13 @@
+-- Tables as Hibernate generated them under ddl-auto=update; "if not exists" adopts existing databases
+create table if not exists members (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    membership_date date not null,
+    phone varchar(255),
+    status enum ('ACTIVE','INACTIVE','SUSPENDED'),
+    primary key (id),
+    -- existsByEmail / findByEmail
+    constraint uk_members_email unique (email)
+) engine=InnoDB;
@@ -0,0 +1,13 @@
+-- Member change events, written with the change and published by OutboxRelay
+create table outbox_events (
+    id bigint not null auto_increment,
+    aggregate_id bigint not null,
+    event_type enum ('CREATED','UPDATED','DELETED') not null,
+    payload varchar(4000),
+    created_at datetime(6) not null,
+    published_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+-- The relay's scan for unpublished events in id order, and the purge of old published ones
+create index idx_outbox_events_published on outbox_events (published_at, id);
@@ -0,0 +1,2 @@
+-- The outbox is shared with book-service through library-common, which reads and writes the same columns
+alter table outbox_events add column copies_delta integer;
\ No newline at end of file
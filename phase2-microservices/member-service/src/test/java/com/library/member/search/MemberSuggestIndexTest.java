@@ -0,0 +1,77 @@
+package com.library.member.search;
+
+import com.library.member.dto.MemberDTO;
+import com.library.member.dto.MemberSuggestionDTO;
+import com.library.member.entity.Member;
+import com.library.member.service.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MemberSuggestIndexTest {
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberSuggestIndex memberSuggestIndex;
+
+    @Test
+    void findsMembersByAnyNameOrEmailPrefix() {
+        Long annabel = create("Annabel", "Quist", "annabel.quist@example.org").getId();
+        Long ann = create("Ann", "Ørsted", "a.orsted@example.org").getId();
+        Long maryJane = create("Mary-Jane", "O'Neil", "mj+desk@example.org").getId();
+
+        // Shorter keys sort first, so the exact word ranks ahead of the longer one
+        assertThat(ids(memberSuggestIndex.suggest("ann", 10))).containsExactly(ann, annabel);
+        assertThat(ids(memberSuggestIndex.suggest("ann", 1))).containsExactly(ann);
+        assertThat(ids(memberSuggestIndex.suggest("orst", 10))).containsExactly(ann);
+        assertThat(ids(memberSuggestIndex.suggest("o'neil", 10))).containsExactly(maryJane);
+        assertThat(ids(memberSuggestIndex.suggest("jane one", 10))).containsExactly(maryJane);
+        assertThat(ids(memberSuggestIndex.suggest("annabel.q", 10))).containsExactly(annabel);
+        assertThat(ids(memberSuggestIndex.suggest("ann quist", 10))).containsExactly(annabel);
+        assertThat(memberSuggestIndex.suggest("zebedee", 10)).isEmpty();
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        MemberDTO member = create("Theodora", "Vantongeren", "theo.v@example.org");
+
+        member.setLastName("Brightwater");
+        memberService.updateMember(member.getId(), member);
+
+        assertThat(memberSuggestIndex.suggest("vantong", 10)).isEmpty();
+        assertThat(ids(memberSuggestIndex.suggest("theodora bright", 10))).containsExactly(member.getId());
+
+        memberService.deleteMember(member.getId());
+
+        assertThat(memberSuggestIndex.suggest("theodora", 10)).isEmpty();
+        assertThat(memberSuggestIndex.suggest("theo.v", 10)).isEmpty();
+    }
+
+    @Test
+    void keepsCommittedChangesThroughARebuild() {
+        Long id = create("Wilhelmina", "Oakhurst", "w.oakhurst@example.org").getId();
+
+        memberSuggestIndex.rebuild();
+
+        assertThat(ids(memberSuggestIndex.suggest("wilhel", 10))).containsExactly(id);
+        assertThat(memberSuggestIndex.stats().getLastRebuildAt()).isNotNull();
+    }
+
+    private MemberDTO create(String firstName, String lastName, String email) {
+        return memberService.createMember(new MemberDTO(null, firstName, lastName, email, null,
+                LocalDate.of(2024, 3, 1), Member.MemberStatus.ACTIVE));
+    }
+
+    private static List<Long> ids(List<MemberSuggestionDTO> suggestions) {
+        return suggestions.stream().map(MemberSuggestionDTO::getId).toList();
+    }
+}
\ No newline at end of file